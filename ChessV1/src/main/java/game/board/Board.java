@@ -1,9 +1,10 @@
 package game.board;
 
-import java.util.Stack;
+import java.util.Arrays;
 
 import game.movegeneration.BitBoards;
 import game.movegeneration.pieces.PieceI;
+import game.search.Move;
 
 /**
  * The `Board` class represents a chess board and provides methods for making moves,
@@ -11,13 +12,15 @@ import game.movegeneration.pieces.PieceI;
  * In a sense it functions similiar to the classical controller.
  * 
  * <p>
- * The board is represented as an 8x8 array of squares, and each square may contain a chess piece.
+ * The board is represented as an array of 64 squares, and each square may contain a chess piece.
+ * The squares are numbered like the bitboards, 0 is a1, 7 is h1 and 63 is h8.
  * Various methods are provided for adding, moving, and removing pieces, as well as for generating
  * valid moves and managing game state.
  * </p>
  * 
  * <p>
- * Whenever a change is made on the board this class further ensures that the BitBoards inside the BitBoard class are also updated.
+ * Whenever a change is made on the board this class further ensures that its own BitBoards instance is also updated.
+ * Every board owns its bitboards, so several boards can be used independently, e.g. by different search threads.
  * </p>
  * Position paramaters like to and from are always given in BitBoard annotation.
  * 
@@ -35,21 +38,32 @@ public class Board {
 	public static final int whiteIndex = 0;
 	public static final int blackIndex = 1;
 
-	// Stores piece code for each square on the board
-	public final PieceI[] square;
+	// Stores piece code for each square on the board, see PieceI for the codes
+	public final byte[] square;
+	// Bitboards of this board
+	public final BitBoards bitBoards;
 
 	// # Side to move info
-	public Stack<GameState> gameStateStack;
-	public Stack<String> fenStack;
+	public final GameState gameState;
+
+	// Undo history, one entry per ply: the move, the packed game state and the Zobrist key before the move
+	private static final int initialHistoryCapacity = 256;
+	private int[] moveHistory;
+	private long[] stateHistory;
+	private long[] keyHistory;
+	private int historyCount;
 
 	//constructor
 	public Board() {
 		//Game State related
-		gameStateStack = new Stack<>();
-		fenStack = new Stack<>();
+		gameState = new GameState(0, -1, 0, true, true, true, true);
+		moveHistory = new int[initialHistoryCapacity];
+		stateHistory = new long[initialHistoryCapacity];
+		keyHistory = new long[initialHistoryCapacity];
 
 		//Board load up
-		square = new PieceI[64];
+		square = new byte[64];
+		bitBoards = new BitBoards();
 		loadStartPosition();
 
 
@@ -57,9 +71,27 @@ public class Board {
 
 	}
 
+	/**
+	 * Creates a board holding a position snapshot, e.g. the board of a worker thread.
+	 * Unlike {@link #Board()} nothing is printed, so tools that create many boards keep their output clean.
+	 *
+	 * @param position The position to load.
+	 * @see #loadPosition(Position)
+	 */
+	public Board(Position position) {
+		gameState = new GameState(0, -1, 0, true, true, true, true);
+		moveHistory = new int[initialHistoryCapacity];
+		stateHistory = new long[initialHistoryCapacity];
+		keyHistory = new long[initialHistoryCapacity];
+
+		square = new byte[64];
+		bitBoards = new BitBoards();
+		loadPosition(position);
+	}
+
 	/**
 	 * Adds a piece to the chess board at the specified position.
-	 * Also syncs the piece to the bitboards.
+	 * Also syncs the piece to the bitboards, the derived bitboards are only updated by {@code bitBoards.updateAll()} once all pieces are added.
 	 * 
 	 * @param pos          The position on the board where the piece will be added (0-63).
 	 * @param pieceType    The type of the piece to be added.
@@ -68,197 +100,45 @@ public class Board {
 	 * Add to Square centric Board and to bitboards.
 	 */
 	public void addPiece(int pos, int pieceType, int pieceColour) {
-		int posBB = toBBSquare(pos);
-		PieceI newPiece = PieceI.addPiece(pos, pieceType, pieceColour);
-		square[posBB] = newPiece;
+		bitBoards.add(pos, pieceType, pieceColour);
+		square[pos] = (byte) PieceI.pieceCode(pieceType, pieceColour);
 	}
 
 	/**
 	 * Moves a piece from one position to another on the chess board.
-	 * Coordinates manipulation of gameState, BitBoards, and Board.
+	 * The move is validated against the generated moves of the piece before it is made.
+	 * Used for moves coming from the GUI, pawns are promoted to a queen.
 	 * 
 	 * @param from  The current position of the piece (0-63).
 	 * @param to    The target position for the piece (0-63).
 	 */
 	public void movePiece(int from, int to) {
-		int fromBB = toBBSquare(from);
-		int toBB = toBBSquare(to);
-
-		PieceI pieceToMove = square[fromBB];
-		PieceI pieceToRemove = square[toBB];
+		movePiece(from, to, 5);
+	}
 
-		GameState previousGameState = gameStateStack.peek();
-		boolean isWhiteToMove = previousGameState.getIsWhiteToMove(); //Swtich move order.
-		int plyCounter = previousGameState.getPlyCounter();
+	/**
+	 * Moves a piece from one position to another on the chess board.
+	 * The move is validated against the generated moves of the piece before it is made.
+	 * 
+	 * @param from                The current position of the piece (0-63).
+	 * @param to                  The target position for the piece (0-63).
+	 * @param promotionPieceType  The piece type a pawn is promoted to when reaching the last rank (2-5).
+	 */
+	public void movePiece(int from, int to, int promotionPieceType) {
+		int pieceToMove = square[from];
+		GameState previousGameState = gameState;
 
-		if (pieceToMove != null) {
-			if (pieceToMove.isWhite() == isWhiteToMove) {
-				if (pieceToMove.isValidMove(from, to, previousGameState)) {
+		if (pieceToMove != PieceI.empty) {
+			if (PieceI.isWhite(pieceToMove) == previousGameState.getIsWhiteToMove()) {
+				if (PieceI.isValidMove(bitBoards, pieceToMove, from, to, previousGameState)) {
 					// Perform the move if it's valid
-					// load relevant information on CurrentGameState
-					boolean wKingSide = previousGameState.getwKingSideCastle();
-					boolean wQueenSide = previousGameState.getwQueenSideCastle();
-					boolean bKingSide = previousGameState.getbKingSideCastle();
-					boolean bQueenSide = previousGameState.getbQueenSideCastle();
-					int newEnPassantFile = -1;
-
-					square[fromBB] = null; // Remove the piece from the original square
-					square[toBB] = pieceToMove; // Place the piece in the new square
-
-					//update BB of Piece.
-					pieceToMove.toggleBB(from, pieceToMove.isWhite());				
-					pieceToMove.toggleBB(to, pieceToMove.isWhite());
-
-
-					if (pieceToRemove != null) {
-						//when piece is of same type need to turn piece board on again
-						if (pieceToMove.getPieceType() == pieceToRemove.getPieceType()) {
-							//toggle only piece value.
-							pieceToRemove.toggleBB(to, pieceToRemove.isWhite());
-
-							//else toggle target square piece as well as colour board
-						} else {
-							pieceToRemove.toggleBB(to, pieceToRemove.isWhite());
-						}
-					}	
-					// Special treatment of Pawn double moves and en Passant.
-					// if Pawn double move was made --> en Passant may be possible
-					if (pieceToMove.getPieceType() == 1) {				
-						// logic to include possible EnPassants for next pawn
-						if (Math.abs((from / 8) - (to / 8)) == 2) {
-							//save 
-							newEnPassantFile = (fromBB % 8);
-						}				
-						// if indeed an en Passant took place remove target piece from square as well as bitboards.
-						if (pieceToRemove == null && (fromBB % 8 != toBB % 8)) {
-							int shift = (pieceToMove.isWhite() ? 8 : -8);
-							pieceToRemove = square[toBB + shift];
-
-							//System.out.println(pieceToRemove.getPieceType());
-							pieceToRemove.toggleBB(to - shift, pieceToRemove.isWhite());
-							square[toBB + shift] = null;
-						}
-						//Queening
-						if (to / 8 == (pieceToMove.isWhite() ? 7 : 0)) {
-							// Check if the pawn reached the 8th (white) or 1st (black) rank
-							// Promote the pawn to a queen
-							//System.out.println("queening");
-
-							square[toBB] = null;				
-
-							// Update the bitboard for the queen
-							pieceToMove.toggleBB(to, pieceToMove.isWhite());
-
-							//BitBoard interferes with adding --> set temporarily to 0;
-							BitBoards.allBB = ~1L << to;
-							addPiece(to, 5, pieceToMove.getPieceColour()); // Queen's piece type is 5				           			          				          
-						}
-					} else {
-						newEnPassantFile = -1;
-					}
-
-					//Also handle castle Moves on the board.
-					if ((pieceToMove.getPieceType() == 6)  && (Math.abs(from % 8 - to % 8) == 2)) {
-						//hard code the different possibilites
-						if (to == 6) {
-							//King Side White
-							PieceI rookPiece = square[toBBSquare(7)];
-
-							rookPiece.toggleBB(7, rookPiece.isWhite());
-							rookPiece.toggleBB(5, rookPiece.isWhite());
-
-							square[toBBSquare(7)] = null;
-							addPiece(5, 4, 0);
-						} else if (to == 2){
-							//Queen Side White
-							PieceI rookPiece = square[toBBSquare(0)];
-
-							rookPiece.toggleBB(0, rookPiece.isWhite());
-							rookPiece.toggleBB(3, rookPiece.isWhite());
-
-							square[toBBSquare(0)] = null;
-							addPiece(3, 4, 0);
-						} else if (to == 62) {
-							//King Side Black							
-							PieceI rookPiece = square[toBBSquare(63)];
-
-							rookPiece.toggleBB(63, rookPiece.isWhite());
-							rookPiece.toggleBB(61, rookPiece.isWhite());
-
-							square[toBBSquare(63)] = null;
-							addPiece(61, 4, 1);
-						} else if (to == 58) {
-							//Queen Side Black
-							PieceI rookPiece = square[toBBSquare(56)];
-
-							rookPiece.toggleBB(56, rookPiece.isWhite());
-							rookPiece.toggleBB(59, rookPiece.isWhite());
-
-							square[toBBSquare(56)] = null;
-							addPiece(59, 4, 1);
-						}
-					}
-
-					// GameState Related Updates and push to stack
-					int removedPiece = 0;
-					if (pieceToRemove != null) {
-						removedPiece = pieceToRemove.getPieceType();
-
-						//remove castling if rook captured on starting position
-						if (pieceToRemove.getPieceType() == 4) {
-							if (to == 0) {
-								wKingSide = false;
-							} else if (to == 7) {
-								wQueenSide = false;
-							} else if (to == 56) {
-								bKingSide = false;
-							} else if (to == 63) {
-								bQueenSide = false;							
-							}
-						}
-					}
-
-					// remove castle right
-					if (pieceToMove.getPieceType() == 6) { //King moves
-						if (pieceToMove.getPieceColour() == 0) {
-							wKingSide = false;
-							wQueenSide = false;
-						} else {
-							bKingSide = false;
-							bQueenSide = false;
-						}
-					}
-					if (pieceToMove.getPieceType() == 4) { //Rook moves
-						if (from == 0) {
-							wKingSide = false;
-						} else if (from == 7) {
-							wQueenSide = false;
-						} else if (from == 56) {
-							bKingSide = false;
-						} else if (from == 63) {
-							bQueenSide = false;							
-						}
-					}
-
-
-
-					plyCounter = plyCounter + 1;
-
-					GameState currentGameState = new GameState(removedPiece, newEnPassantFile, plyCounter, wKingSide, wQueenSide, bKingSide, bQueenSide);								
-					currentGameState.setOppToMove(isWhiteToMove);				
-					saveGameState(currentGameState);
-
-					BitBoards.updateAll();
-					//System.out.println("Move " + moveCounter + " successful   " + from + " - " + to);
-
-					pushToFENStack(FEN.currentFen(square, currentGameState));
-
+					makeMove(createMove(from, to, promotionPieceType));
 				} else {
 					// Handle invalid move
 					System.out.println("Invalid move:  " + from + " - " + to);
 				}
 			} else{
-				if (pieceToMove.getPieceColour() == 0) {
+				if (PieceI.isWhite(pieceToMove)) {
 					System.out.println("Black's turn");
 				} else {
 					System.out.println("White's turn");
@@ -267,13 +147,176 @@ public class Board {
 		} else {
 			System.out.println("No piece on square:" + from);
 		}
-		//printBoard(square);
+	}
+
+	/**
+	 * Encodes a move of the piece on the from square in the current position.
+	 * Captures, en passant, castling, pawn double moves and promotions are recognised here once,
+	 * so that making the move does not have to derive them again.
+	 * 
+	 * @param from                The current position of the piece (0-63).
+	 * @param to                  The target position for the piece (0-63).
+	 * @param promotionPieceType  The piece type a pawn is promoted to when reaching the last rank (2-5).
+	 * @return The encoded move.
+	 * @see game.search.Move
+	 */
+	public int createMove(int from, int to, int promotionPieceType) {
+		int pieceType = PieceI.getPieceType(square[from]);
+		int capturedPieceType = PieceI.getPieceType(square[to]);
+		int flag = Move.noFlag;
+
+		if (pieceType == 1) {
+			if (Math.abs(to - from) == 16) {
+				flag = Move.pawnTwoUpFlag;
+			} else if (capturedPieceType == 0 && from % 8 != to % 8) {
+				flag = Move.enPassantCaptureFlag;
+				capturedPieceType = 1;
+			} else if (to / 8 == 7 || to / 8 == 0) {
+				flag = Move.promotionFlag(promotionPieceType);
+			}
+		} else if (pieceType == 6 && Math.abs(to - from) == 2) {
+			flag = Move.castleFlag;
+		}
+		return Move.encode(from, to, pieceType, capturedPieceType, flag);
+	}
+
+	/**
+	 * Makes a move on the board without validating it.
+	 * Trusted fast path for moves that were generated by the engine.
+	 * Only the squares touched by the move are changed on the board and the bitboards,
+	 * the previous game state is packed into the undo history and the game state is updated in place.
+	 * The Zobrist key of the new position is derived from the previous key by XORing the changed pieces and state.
+	 * 
+	 * @param move  The encoded move.
+	 * @see #unmakeMove(int)
+	 * @see game.search.Move
+	 */
+	public void makeMove(int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int flag = Move.getFlag(move);
+		int pieceType = Move.getPieceType(move);
+		int removedPiece = Move.getCapturedPieceType(move);
+		int pieceColour = gameState.getIsWhiteToMove() ? 0 : 1;
+
+		boolean wKingSide = gameState.getwKingSideCastle();
+		boolean wQueenSide = gameState.getwQueenSideCastle();
+		boolean bKingSide = gameState.getbKingSideCastle();
+		boolean bQueenSide = gameState.getbQueenSideCastle();
+		int newEnPassantFile = -1;
+		long zobristKey = gameState.getZobristKey() ^ Zobrist.stateKey(gameState);
+		saveGameState(move);
+
+		// Capture, en passant captures the pawn behind the target square
+		if (removedPiece != 0) {
+			int capturedSquare = (flag == Move.enPassantCaptureFlag) ? to + (pieceColour == 0 ? -8 : 8) : to;
+			removePiece(capturedSquare);
+			zobristKey ^= Zobrist.pieceKey(removedPiece, 1 - pieceColour, capturedSquare);
+		}
+
+		int pieceToMove = removePiece(from);
+		zobristKey ^= Zobrist.pieceKey(pieceType, pieceColour, from);
+
+		switch (flag) {
+		case Move.pawnTwoUpFlag:
+			// en Passant may be possible
+			newEnPassantFile = from % 8;
+			break;
+		case Move.castleFlag:
+			//Also move the rook when castling.
+			int rookFrom = (to > from) ? to + 1 : to - 2;
+			int rookTo = (to > from) ? to - 1 : to + 1;
+			placePiece(rookTo, removePiece(rookFrom));
+			zobristKey ^= Zobrist.pieceKey(4, pieceColour, rookFrom) ^ Zobrist.pieceKey(4, pieceColour, rookTo);
+			break;
+		default:
+			break;
+		}
+
+		if (Move.isPromotion(move)) {
+			int promotionPieceType = Move.getPromotionPieceType(move);
+			placePiece(to, PieceI.pieceCode(promotionPieceType, pieceColour));
+			zobristKey ^= Zobrist.pieceKey(promotionPieceType, pieceColour, to);
+		} else {
+			placePiece(to, pieceToMove);
+			zobristKey ^= Zobrist.pieceKey(pieceType, pieceColour, to);
+		}
+
+		// remove castle right when king or rook moved or rook captured on starting position
+		if (pieceType == 6) {
+			if (pieceColour == 0) {
+				wKingSide = false;
+				wQueenSide = false;
+			} else {
+				bKingSide = false;
+				bQueenSide = false;
+			}
+		}
+		if (from == 7 || to == 7) {
+			wKingSide = false;
+		}
+		if (from == 0 || to == 0) {
+			wQueenSide = false;
+		}
+		if (from == 63 || to == 63) {
+			bKingSide = false;
+		}
+		if (from == 56 || to == 56) {
+			bQueenSide = false;
+		}
 
-		//target	PtM (empty)		different piece		same piece		
-		//piece		0 -> 1			0 -> 1 -> 1			1 -> 0 -> 1
-		//							1 -> 1 -> 0		
-		//white		0 -> 1			0 -> 1 -> 1			0 -> 1 -> 1
-		//black		0 -> 0			1 -> 1 -> 0			1 -> 1 -> 0
+		gameState.setFiftyMoveCounter((pieceType == 1 || removedPiece != 0) ? 0 : gameState.getFiftyMoveCounter() + 1);
+		gameState.setCapturedPieceType(removedPiece);
+		gameState.setEnPassantFile(newEnPassantFile);
+		gameState.setPlyCounter(gameState.getPlyCounter() + 1);
+		gameState.setMoveCounter(gameState.getPlyCounter() / 2 + 1);
+		gameState.setwKingSideCastle(wKingSide);
+		gameState.setwQueenSideCastle(wQueenSide);
+		gameState.setbKingSideCastle(bKingSide);
+		gameState.setbQueenSideCastle(bQueenSide);
+		gameState.setWhiteToMove(pieceColour != 0);
+		gameState.setZobristKey(zobristKey ^ Zobrist.stateKey(gameState));
+
+		bitBoards.updateAll();
+	}
+
+	/**
+	 * Takes back a move that was made with {@link #makeMove(int)}.
+	 * The previous game state is restored from the undo history and only the squares that were changed are reversed.
+	 * The Zobrist key is restored with the previous game state.
+	 * 
+	 * @param move  The encoded move that was made last.
+	 */
+	public void unmakeMove(int move) {
+		restorePreviousState();
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int flag = Move.getFlag(move);
+		int removedPiece = Move.getCapturedPieceType(move);
+
+		int movedPiece = removePiece(to);
+		int pieceColour = PieceI.getPieceColour(movedPiece);
+		if (Move.isPromotion(move)) {
+			movedPiece = PieceI.pieceCode(1, pieceColour);
+		}
+		placePiece(from, movedPiece);
+
+		// put the rook back when castling
+		if (flag == Move.castleFlag) {
+			if (to > from) {
+				placePiece(to + 1, removePiece(to - 1));
+			} else {
+				placePiece(to - 2, removePiece(to + 1));
+			}
+		}
+
+		// restore captured piece, for en passant the target square was empty
+		if (removedPiece != 0) {
+			int capturedSquare = (flag == Move.enPassantCaptureFlag) ? to + (pieceColour == 0 ? -8 : 8) : to;
+			placePiece(capturedSquare, PieceI.pieceCode(removedPiece, 1 - pieceColour));
+		}
+
+		bitBoards.updateAll();
 	}
 
 	/**
@@ -283,10 +326,9 @@ public class Board {
 	 * @return      A long value representing the valid moves as a bitboard.
 	 */
 	public long showValidMoves(int from) {
-		int fromBB = toBBSquare(from);
 		long validMoves = 0L;
-		if (square[fromBB] != null && square[fromBB].isWhite() == gameStateStack.peek().getIsWhiteToMove()) {
-			validMoves = square[fromBB].generateMove(from, square[fromBB].isWhite(), gameStateStack.peek());
+		if (square[from] != PieceI.empty && PieceI.isWhite(square[from]) == gameState.getIsWhiteToMove()) {
+			validMoves = PieceI.generateMove(bitBoards, square[from], from, gameState);
 		}
 		return validMoves;
 	}
@@ -299,20 +341,70 @@ public class Board {
 	 */
 	public void loadFENBoard(String fen) {
 		//No check for if valid fen.
-		FEN.loadPositionFromFEN(this, fen, false, true);
+		FEN.loadPositionFromFEN(this, fen);
 	}
 
 	/**
-	 * Loads the previous chess board position from the game state stack.
+	 * Loads the previous chess board position by taking back the last move of the undo history.
+	 * Nothing happens if no move was made since the position was loaded.
 	 */
 	public void loadPreviousBoard(){
-		//pop GameState from stack
-		restorePreviousState();
+		if (historyCount > 0) {
+			unmakeMove(moveHistory[historyCount - 1]);
+		}
+	}
+
+	/**
+	 * Creates the FEN string of the current position.
+	 * The FEN is only built on demand, it is not stored for every move.
+	 *
+	 * @return The FEN string of the current position.
+	 */
+	public String getFen() {
+		return FEN.currentFen(square, gameState);
+	}
 
-		//pop fen from stack and load 
-		fenStack.pop();
-		FEN.loadPositionFromFEN(this, fenStack.peek(), false, false);
+	/**
+	 * Creates an immutable snapshot of the current position.
+	 *
+	 * @return The current position.
+	 * @see #loadPosition(Position)
+	 */
+	public Position toPosition() {
+		return new Position(bitBoards.pawnsBB, bitBoards.knightsBB, bitBoards.bishopsBB, bitBoards.rooksBB, bitBoards.queensBB, bitBoards.kingsBB,
+				bitBoards.whiteBB, bitBoards.blackBB, gameState.pack(), gameState.getZobristKey());
+	}
 
+	/**
+	 * Loads a position snapshot into this board.
+	 * The bitboards and game state are copied, the board array is rebuilt from the bitboards and the undo history is cleared.
+	 *
+	 * @param position The position to load.
+	 * @see #toPosition()
+	 */
+	public void loadPosition(Position position) {
+		bitBoards.pawnsBB = position.getPawnsBB();
+		bitBoards.knightsBB = position.getKnightsBB();
+		bitBoards.bishopsBB = position.getBishopsBB();
+		bitBoards.rooksBB = position.getRooksBB();
+		bitBoards.queensBB = position.getQueensBB();
+		bitBoards.kingsBB = position.getKingsBB();
+		bitBoards.whiteBB = position.getWhiteBB();
+		bitBoards.blackBB = position.getBlackBB();
+
+		Arrays.fill(square, (byte) PieceI.empty);
+		fillSquares(bitBoards.pawnsBB, 1);
+		fillSquares(bitBoards.knightsBB, 2);
+		fillSquares(bitBoards.bishopsBB, 3);
+		fillSquares(bitBoards.rooksBB, 4);
+		fillSquares(bitBoards.queensBB, 5);
+		fillSquares(bitBoards.kingsBB, 6);
+
+		gameState.unpack(position.getPackedState());
+		gameState.setZobristKey(position.getZobristKey());
+		clearHistory();
+
+		bitBoards.updateAll();
 	}
 
 	// Load the starting position
@@ -322,7 +414,7 @@ public class Board {
 	 * representing the standard starting position.
 	 */
 	public void loadStartPosition() {
-		FEN.loadPositionFromFEN(this, FEN.START_POSITION_FEN, true, true);		
+		FEN.loadPositionFromFEN(this, FEN.START_POSITION_FEN);
 	}
 
 	
@@ -332,79 +424,88 @@ public class Board {
 	
 	// # Helper
 	/**
-	 * Saves the current game state by pushing it onto the game state stack.
+	 * Saves the current game state and the move that is about to be made to the undo history.
+	 * The history grows when it is full.
 	 *
-	 * @param currentGameState The current game state to be saved.
+	 * @param move The encoded move that is made from the current game state.
 	 */
-	protected void saveGameState(GameState currentGameState) {
-		// Save the current game state by pushing it onto the stack
-		gameStateStack.push(currentGameState);
+	private void saveGameState(int move) {
+		if (historyCount == moveHistory.length) {
+			int newCapacity = historyCount * 2;
+			moveHistory = Arrays.copyOf(moveHistory, newCapacity);
+			stateHistory = Arrays.copyOf(stateHistory, newCapacity);
+			keyHistory = Arrays.copyOf(keyHistory, newCapacity);
+		}
+		moveHistory[historyCount] = move;
+		stateHistory[historyCount] = gameState.pack();
+		keyHistory[historyCount] = gameState.getZobristKey();
+		historyCount++;
+	}
+
+	/**
+	 * Restores the previous game state from the undo history.
+	 */
+	private void restorePreviousState() {
+		historyCount--;
+		gameState.unpack(stateHistory[historyCount]);
+		gameState.setZobristKey(keyHistory[historyCount]);
+	}
+
+	/**
+	 * Clears the undo history, used when a new position is loaded.
+	 */
+	protected void clearHistory() {
+		historyCount = 0;
 	}
 
-	//for eval.
 	/**
-	 * Restores the previous game state by popping from the game state stack.
+	 * Writes the piece codes for all pieces of one type to the board array, the bitboards are not changed.
 	 *
-	 * @return The restored previous game state, or {@code null} if the stack is empty.
+	 * @param pieceBB   The bitboard of the pieces of both colours.
+	 * @param pieceType The type of the pieces.
 	 */
-	private GameState restorePreviousState() {
-		// Restore the previous game state by popping from the stack
-		if (!gameStateStack.isEmpty()) {
-			return gameStateStack.pop();
-		} else {
-			// Stack is empty, no previous state to restore
-			return null;
+	private void fillSquares(long pieceBB, int pieceType) {
+		while (pieceBB != 0) {
+			int pos = Long.numberOfTrailingZeros(pieceBB);
+			int pieceColour = (bitBoards.whiteBB & (1L << pos)) != 0 ? 0 : 1;
+			square[pos] = (byte) PieceI.pieceCode(pieceType, pieceColour);
+			pieceBB &= pieceBB - 1;
 		}
 	}
 
 	/**
-	 * Pushes the given FEN string onto the FEN stack.
+	 * Places a piece on an empty square of the board and the bitboards.
 	 *
-	 * @param fen The FEN string to be pushed onto the stack.
+	 * @param pos   The position on the board (0-63).
+	 * @param piece The piece code of the piece to place.
 	 */
-	protected void pushToFENStack(String fen) {
-		fenStack.push(fen);
-		//System.out.println(fen);
-	}	
-	
+	private void placePiece(int pos, int piece) {
+		square[pos] = (byte) piece;
+		PieceI.toggleBB(bitBoards, piece, pos);
+	}
+
 	/**
-	 * Inverts the position info. A standard 2D Array is nubered 0-63 but from top to botom unlike the BitBoard which is numbered bottom to top.
+	 * Removes the piece on a square from the board and the bitboards.
 	 *
-	 * @param pos The position on the chess board (0 to 63).
-	 * @return The corresponding index in the bitboard.
+	 * @param pos The position on the board (0-63).
+	 * @return The piece code of the removed piece.
 	 */
-	public static int toBBSquare(int pos) {
-		int bbPos = 0;
-		int squareIndex = pos / 8;
+	private int removePiece(int pos) {
+		int piece = square[pos];
+		square[pos] = PieceI.empty;
+		PieceI.toggleBB(bitBoards, piece, pos);
+		return piece;
+	}
 
-		switch (squareIndex) {
-		case 0:
-			bbPos = 7 * 8;
-			break;
-		case 1:
-			bbPos = 6 * 8;
-			break;
-		case 2: 
-			bbPos = 5 * 8;
-			break;
-		case 3:
-			bbPos = 4 * 8;
-			break;
-		case 4: 
-			bbPos = 3 * 8;
-			break;
-		case 5:
-			bbPos = 2 * 8;
-			break;
-		case 6:
-			bbPos = 1 * 8;
-			break;
-		case 7:
-			bbPos = 0 * 8;
-			break;
-		}
-		bbPos = bbPos + pos % 8;
-		return bbPos;
+	/**
+	 * Mirrors a square vertically, i.e. a1 becomes a8 and h8 becomes h1.
+	 * Used where data is given from the view of the black side or from the top of the board, like the piece square tables.
+	 *
+	 * @param square The square in BitBoard annotation (0 to 63).
+	 * @return The square on the same file of the mirrored rank.
+	 */
+	public static int flipRank(int square) {
+		return square ^ 56;
 	}
 
 	/**
@@ -439,12 +540,14 @@ public class Board {
 	 *
 	 * @param square The chess board to print.
 	 */
-	public void printBoard(PieceI[] square) {
+	public void printBoard(byte[] square) {
 		int count = 0;
 
-		for (PieceI i : square) {
-			if (i != null) {
-				switch (i.getPieceType() + i.getPieceColour() * 6) {
+		for (int index = 0; index < square.length; index++) {
+			// print from the top, rank 8 first
+			byte i = square[flipRank(index)];
+			if (i != PieceI.empty) {
+				switch (i) {
 				case 1: 
 					System.out.print("P ");
 					break;
@@ -533,65 +636,52 @@ public class Board {
 
 
 	/**
-	 * Debugging: Prints All BitBoards of Pieces and AttackMasks.
+	 * Debugging: Prints All BitBoards of Pieces.
 	 *
 	 * @param enableIndex If true, prints the index of each square on the board.
 	 */
-	public static void printAllBB(boolean enableIndex) {
+	public void printAllBB(boolean enableIndex) {
 		System.out.println();
 		System.out.println("-------------------------------");
 		System.out.println();
 		System.out.println("ALL");
-		printBitBoard(BitBoards.allBB, enableIndex);
+		printBitBoard(bitBoards.allBB, enableIndex);
 		System.out.println("WHITE");
-		printBitBoard(BitBoards.whiteBB, enableIndex);
+		printBitBoard(bitBoards.whiteBB, enableIndex);
 		System.out.println("BLACK");
-		printBitBoard(BitBoards.blackBB, enableIndex);
-
-		System.out.println("-------- Attack Masks --------");
-		System.out.println();
-		System.out.println("W - ATTACK");
-		printBitBoard(BitBoards.whiteAM, enableIndex);
-		System.out.println("B - ATTACK");
-		printBitBoard(BitBoards.blackAM, enableIndex);
-		printBitBoard(BitBoards.blackPawnsAM, enableIndex);
-		printBitBoard(BitBoards.blackRooksAM, enableIndex);
-		printBitBoard(BitBoards.blackKnightsAM, enableIndex);
-		printBitBoard(BitBoards.blackBishopsAM, enableIndex);
-		printBitBoard(BitBoards.blackQueensAM, enableIndex);
-		printBitBoard(BitBoards.blackKingAM, enableIndex);
+		printBitBoard(bitBoards.blackBB, enableIndex);
 
 		System.out.println("-------------------------------");
 		System.out.println();
 
 		System.out.println("W - PAWN");
-		printBitBoard(BitBoards.whitePawnsBB, enableIndex);
+		printBitBoard(bitBoards.whitePawnsBB, enableIndex);
 		System.out.println("W - KNIGHT");
-		printBitBoard(BitBoards.whiteKnightsBB, enableIndex);
+		printBitBoard(bitBoards.whiteKnightsBB, enableIndex);
 		System.out.println("W - BISHOP");
-		printBitBoard(BitBoards.whiteBishopsBB, enableIndex);
+		printBitBoard(bitBoards.whiteBishopsBB, enableIndex);
 		System.out.println("W - ROOK");
-		printBitBoard(BitBoards.whiteRooksBB, enableIndex);
+		printBitBoard(bitBoards.whiteRooksBB, enableIndex);
 		System.out.println("W - QUEEN");
-		printBitBoard(BitBoards.whiteQueensBB, enableIndex);
+		printBitBoard(bitBoards.whiteQueensBB, enableIndex);
 		System.out.println("W - KING");
-		printBitBoard(BitBoards.whiteKingBB, enableIndex);
+		printBitBoard(bitBoards.whiteKingBB, enableIndex);
 
 		System.out.println("-------------------------------");
 
 		System.out.println();
 		System.out.println("B - PAWN");
-		printBitBoard(BitBoards.blackPawnsBB, enableIndex);
+		printBitBoard(bitBoards.blackPawnsBB, enableIndex);
 		System.out.println("B - KNIGHT");
-		printBitBoard(BitBoards.blackKnightsBB, enableIndex);
+		printBitBoard(bitBoards.blackKnightsBB, enableIndex);
 		System.out.println("B - BISHOP");
-		printBitBoard(BitBoards.blackBishopsBB, enableIndex);
+		printBitBoard(bitBoards.blackBishopsBB, enableIndex);
 		System.out.println("B - ROOK");
-		printBitBoard(BitBoards.blackRooksBB, enableIndex);
+		printBitBoard(bitBoards.blackRooksBB, enableIndex);
 		System.out.println("B - QUEEN");
-		printBitBoard(BitBoards.blackQueensBB, enableIndex);
+		printBitBoard(bitBoards.blackQueensBB, enableIndex);
 		System.out.println("B - KING");
-		printBitBoard(BitBoards.blackKingBB, enableIndex);
+		printBitBoard(bitBoards.blackKingBB, enableIndex);
 
 		System.out.println("----------- end ---------------");
 		System.out.println();
@@ -2,7 +2,6 @@ package game.board;
 
 import java.util.Arrays;
 
-import game.movegeneration.BitBoards;
 import game.movegeneration.pieces.PieceI;
 
 /**
@@ -30,29 +29,28 @@ public class FEN {
      * @param gameState The current game state.
      * @return The FEN string representing the current state of the chess board.
      */
-	public static String currentFen(PieceI[] square, GameState gameState) {
+	public static String currentFen(byte[] square, GameState gameState) {
 		StringBuilder fen = new StringBuilder();
 
 		int numEmptyFiles = 0;
-		for (int i = 0; i < square.length; i++) {
-			int file = i % 8;
-			int rank = i/8;
+		// FEN starts at rank 8, the board array at a1
+		for (int j = 0; j < square.length; j++) {
+			int file = j % 8;
+			int rank = 7 - j / 8;
+			int i = rank * 8 + file;
 
 
 			if (file == 0) {
 				numEmptyFiles = 0;
 			}
 
-			int piece = 0;
-			if(square[i] != null) {
-				piece = square[i].getPieceType();
-			} 
+			int piece = PieceI.getPieceType(square[i]);
 			if (piece != 0) {
 				if (numEmptyFiles != 0) {
 					fen.append(numEmptyFiles);
 					numEmptyFiles = 0;
 				}
-				boolean isWhite = square[i].isWhite();
+				boolean isWhite = PieceI.isWhite(square[i]);
 
 				char pieceChar = ' ';
 				switch (piece) {
@@ -85,7 +83,7 @@ public class FEN {
 					fen.append(numEmptyFiles);
 				}
 
-				if (rank != 7) {
+				if (rank != 0) {
 					fen.append('/');
 				}
 			}
@@ -133,23 +131,21 @@ public class FEN {
 	/**
 	 * Loads a chess board position from a Forsyth-Edwards Notation (FEN) string.
 	 *
-	 * @param fen         The FEN string representing the board position.
-	 * @param newGame     Flag indicating whether to clear the game state stack and FEN stack for a new game.
-	 * @param pushToStack Flag indicating whether to push the FEN string onto the FEN stack.
+	 * The undo history of the board is cleared, as the loaded position has no previous moves.
+	 *
+	 * @param board The board the position is loaded into.
+	 * @param fen   The FEN string representing the board position.
 	 */
-	public static void loadPositionFromFEN(Board board,String fen, boolean newGame, boolean pushToStack) {
+	public static void loadPositionFromFEN(Board board,String fen) {
 
 		//clear BitBoards.
-		Arrays.fill(board.square, null);
-		BitBoards.allBB = 0L;
-		BitBoards.clear(1);
+		Arrays.fill(board.square, (byte) PieceI.empty);
+		board.bitBoards.allBB = 0L;
+		board.bitBoards.clear(1);
 
-		if (newGame) {
-			board.gameStateStack.clear();
-			board.fenStack.clear();
-			GameState initialGameState = new GameState(0, 0, 0, true, true, true, true);
-			board.saveGameState(initialGameState);
-		} 
+		board.clearHistory();
+		GameState gameState = board.gameState;
+		gameState.setCapturedPieceType(0);
 
 
 		String[] sections = fen.split(" ");
@@ -197,19 +193,21 @@ public class FEN {
 				}
 			}
 		}
+		// derived bitboards are updated once for the whole position
+		board.bitBoards.updateAll();
 		try {
-			board.gameStateStack.peek().setWhiteToMove(sections[1].equals("w"));
+			gameState.setWhiteToMove(sections[1].equals("w"));
 
 			String castlingRights = sections[2];
-			board.gameStateStack.peek().setwKingSideCastle(castlingRights.contains("K"));
-			board.gameStateStack.peek().setwQueenSideCastle(castlingRights.contains("Q"));
-			board.gameStateStack.peek().setbKingSideCastle(castlingRights.contains("k"));
-			board.gameStateStack.peek().setbQueenSideCastle(castlingRights.contains("q"));
+			gameState.setwKingSideCastle(castlingRights.contains("K"));
+			gameState.setwQueenSideCastle(castlingRights.contains("Q"));
+			gameState.setbKingSideCastle(castlingRights.contains("k"));
+			gameState.setbQueenSideCastle(castlingRights.contains("q"));
 
 			// Default values
 			int epFile = -1;
 			int fiftyMoveCounter = 0;
-			int moveCounter = 0;
+			int moveCounter = 1;
 
 			if (sections.length > 3) {
 				String enPassantFileName = String.valueOf(sections[3].charAt(0));
@@ -229,18 +227,15 @@ public class FEN {
 
 			// plyCounter if black to move +1
 			int inc = 0;
-			if (!board.gameStateStack.peek().getIsWhiteToMove()) {
+			if (!gameState.getIsWhiteToMove()) {
 				inc = 1;
 			}
-			board.gameStateStack.peek().setPlyCounter((moveCounter * 2) - 2 + inc);
-
-			board.gameStateStack.peek().setEnPassantFile(epFile);
-			board.gameStateStack.peek().setFiftyMoveCounter(fiftyMoveCounter);
-			board.gameStateStack.peek().setMoveCounter(moveCounter);
+			gameState.setPlyCounter((moveCounter * 2) - 2 + inc);
 
-			if (pushToStack) {
-				board.pushToFENStack(fen);
-			}
+			gameState.setEnPassantFile(epFile);
+			gameState.setFiftyMoveCounter(fiftyMoveCounter);
+			gameState.setMoveCounter(moveCounter);
+			gameState.setZobristKey(Zobrist.calculateZobristKey(board.square, gameState));
 
 		} catch (ArrayIndexOutOfBoundsException e){
 			System.err.println("Error: Array index out of bounds. " + e.getMessage());
@@ -2,8 +2,12 @@ package game.board;
 /**
  * The GameState class represents the current state of a chess game, including turn information,
  * captured pieces, en passant, castling rights, and other relevant details.
+ * Each state also keeps the Zobrist key of the position it belongs to.
+ * The board owns a single GameState that is changed in place by every move, previous states are kept packed
+ * into longs in the undo history of the board.
  * 
  * @see game.board.Board
+ * @see game.board.Zobrist
  * 
  * @author Ryu
  * @version 1.0
@@ -25,6 +29,18 @@ public class GameState {
 	private boolean bKingSideCastle;
 	private boolean bQueenSideCastle;
 
+	private long zobristKey;
+
+	// Bit layout of a packed game state, see pack()
+	private static final int enPassantShift = 4;
+	private static final int capturedShift = 8;
+	private static final int whiteToMoveShift = 11;
+	private static final int fiftyMoveShift = 12;
+	private static final int plyShift = 28;
+	private static final int moveCounterShift = 48;
+	private static final long sixteenBitMask = 0xFFFFL;
+	private static final long twentyBitMask = 0xFFFFFL;
+
 	 /**
      * Constructs a new GameState with the specified initial values.
      *
@@ -63,24 +79,122 @@ public class GameState {
 
 		if (isWhite) {
 			if (wKingSideCastle) {
-				//Position of King after Castle QueenSide
-				castleBoard |= 1L << 2;
+				//Position of King after Castle KingSide
+				castleBoard |= 1L << 6;
 			}
 			if (wQueenSideCastle) {
-				castleBoard |= 1L << 6;
+				castleBoard |= 1L << 2;
 			}
 		} else {
 			if (bKingSideCastle) {
-				//Position of King after Castle QueenSide
-				castleBoard |= 1L << 58;
+				//Position of King after Castle KingSide
+				castleBoard |= 1L << 62;
 			}
 			if (bQueenSideCastle) {
-				castleBoard |= 1L << 62;
+				castleBoard |= 1L << 58;
 			}
 		}
 		return castleBoard;
 	}
 	
+	/**
+     * Gets the castling rights packed into four bits.
+     * Bit 0 white king side, bit 1 white queen side, bit 2 black king side, bit 3 black queen side.
+     *
+     * @return The castling rights (0-15).
+     */
+	public int getCastleRights() {
+		int rights = 0;
+		if (wKingSideCastle) {
+			rights |= 1;
+		}
+		if (wQueenSideCastle) {
+			rights |= 2;
+		}
+		if (bKingSideCastle) {
+			rights |= 4;
+		}
+		if (bQueenSideCastle) {
+			rights |= 8;
+		}
+		return rights;
+	}
+	
+	/**
+     * Sets the castling rights from four packed bits.
+     *
+     * @param rights The castling rights (0-15), same layout as {@link #getCastleRights()}.
+     */
+	public void setCastleRights(int rights) {
+		wKingSideCastle = (rights & 1) != 0;
+		wQueenSideCastle = (rights & 2) != 0;
+		bKingSideCastle = (rights & 4) != 0;
+		bQueenSideCastle = (rights & 8) != 0;
+	}
+
+	/**
+     * Packs the state, without the Zobrist key, into a single long for the undo history of the board.
+     * <pre>
+     *  0 -  3  castling rights
+     *  4 -  7  en passant file + 1, 0 if no en passant is possible
+     *  8 - 10  type of the captured piece
+     * 11       white to move
+     * 12 - 27  fifty move counter
+     * 28 - 47  ply counter
+     * 48 - 63  move counter
+     * </pre>
+     *
+     * @return The packed game state.
+     * @see #unpack(long)
+     */
+	public long pack() {
+		return getCastleRights()
+				| (long) (enPassantFile + 1) << enPassantShift
+				| (long) capturedPieceType << capturedShift
+				| (isWhiteToMove ? 1L : 0L) << whiteToMoveShift
+				| (fiftyMoveCounter & sixteenBitMask) << fiftyMoveShift
+				| (plyCounter & twentyBitMask) << plyShift
+				| (moveCounter & sixteenBitMask) << moveCounterShift;
+	}
+
+	/**
+     * Restores the state from a long created by {@link #pack()}.
+     * The Zobrist key is not part of the packed state and has to be restored separately.
+     *
+     * @param packedState The packed game state.
+     */
+	public void unpack(long packedState) {
+		setCastleRights((int) (packedState & 0xF));
+		enPassantFile = (int) ((packedState >>> enPassantShift) & 0xF) - 1;
+		capturedPieceType = (int) ((packedState >>> capturedShift) & 0x7);
+		isWhiteToMove = ((packedState >>> whiteToMoveShift) & 1) != 0;
+		fiftyMoveCounter = (int) ((packedState >>> fiftyMoveShift) & sixteenBitMask);
+		plyCounter = (int) ((packedState >>> plyShift) & twentyBitMask);
+		moveCounter = (int) ((packedState >>> moveCounterShift) & sixteenBitMask);
+	}
+
+	/**
+     * Removes the captured piece from a packed state.
+     * The captured piece only matters for taking back a move, not for the position itself.
+     *
+     * @param packedState The packed game state.
+     * @return The packed game state without captured piece.
+     */
+	public static long clearCapturedPiece(long packedState) {
+		return packedState & ~(0x7L << capturedShift);
+	}
+
+	/**
+     * Keeps only the castling rights, the en passant file and the side to move of a packed state.
+     * Together with the pieces these define the position, the counters only tell how it was reached.
+     *
+     * @param packedState The packed game state.
+     * @return The packed game state without captured piece and counters.
+     */
+	public static long positionState(long packedState) {
+		return clearCapturedPiece(packedState) & ((1L << fiftyMoveShift) - 1);
+	}
+
 	/**
      * Resets the game state, including castle rights and turn information.
      */
@@ -177,6 +291,14 @@ public class GameState {
 		this.moveCounter = moveCounter;
 	}
 	
+	public long getZobristKey() {
+		return zobristKey;
+	}
+	
+	public void setZobristKey(long zobristKey) {
+		this.zobristKey = zobristKey;
+	}
+	
 	public int getFiftyMoveCounter() {
 		return fiftyMoveCounter;
 	}
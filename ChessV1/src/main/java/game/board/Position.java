@@ -0,0 +1,142 @@
+package game.board;
+
+/**
+ * The Position class is an immutable snapshot of a chess position.
+ * 
+ * <p>
+ * It holds the piece bitboards, the game state packed into a single long and the Zobrist key.
+ * A board can export its current position with {@link Board#toPosition()} and load one with {@link Board#loadPosition(Position)},
+ * so positions can be handed to other threads or kept in caches without creating and parsing FEN strings.
+ * </p>
+ * As the key is part of the snapshot, positions can be compared and hashed cheaply.
+ * Two positions are equal if they have the same pieces, side to move, castling rights and en passant file,
+ * the fifty move, ply and move counters are kept in the snapshot but are not part of its identity,
+ * so the same position reached by a transposition is equal.
+ * 
+ * @see game.board.Board
+ * @see game.board.GameState#pack()
+ * 
+ * @author Ryu
+ * @version 1.0
+ */
+public final class Position {
+	private final long pawnsBB;
+	private final long knightsBB;
+	private final long bishopsBB;
+	private final long rooksBB;
+	private final long queensBB;
+	private final long kingsBB;
+	private final long whiteBB;
+	private final long blackBB;
+
+	/**
+     * Side to move, castling rights, en passant file and counters, see {@link GameState#pack()}.
+     */
+	private final long packedState;
+	private final long zobristKey;
+
+	/**
+     * Constructs a new Position from the given bitboards and state.
+     *
+     * @param pawnsBB     Bitboard of all pawns.
+     * @param knightsBB   Bitboard of all knights.
+     * @param bishopsBB   Bitboard of all bishops.
+     * @param rooksBB     Bitboard of all rooks.
+     * @param queensBB    Bitboard of all queens.
+     * @param kingsBB     Bitboard of all kings.
+     * @param whiteBB     Bitboard of all white pieces.
+     * @param blackBB     Bitboard of all black pieces.
+     * @param packedState The game state packed by {@link GameState#pack()}.
+     * @param zobristKey  The Zobrist key of the position.
+     */
+	public Position(long pawnsBB, long knightsBB, long bishopsBB, long rooksBB, long queensBB, long kingsBB, long whiteBB, long blackBB, long packedState, long zobristKey) {
+		this.pawnsBB = pawnsBB;
+		this.knightsBB = knightsBB;
+		this.bishopsBB = bishopsBB;
+		this.rooksBB = rooksBB;
+		this.queensBB = queensBB;
+		this.kingsBB = kingsBB;
+		this.whiteBB = whiteBB;
+		this.blackBB = blackBB;
+		this.packedState = GameState.clearCapturedPiece(packedState);
+		this.zobristKey = zobristKey;
+	}
+
+	/**
+     * Creates a new GameState holding the state of this position.
+     *
+     * @return A new game state, changing it does not affect the position.
+     */
+	public GameState getGameState() {
+		GameState gameState = new GameState(0, -1, 0, false, false, false, false);
+		gameState.unpack(packedState);
+		gameState.setZobristKey(zobristKey);
+		return gameState;
+	}
+
+	public long getPawnsBB() {
+		return pawnsBB;
+	}
+
+	public long getKnightsBB() {
+		return knightsBB;
+	}
+
+	public long getBishopsBB() {
+		return bishopsBB;
+	}
+
+	public long getRooksBB() {
+		return rooksBB;
+	}
+
+	public long getQueensBB() {
+		return queensBB;
+	}
+
+	public long getKingsBB() {
+		return kingsBB;
+	}
+
+	public long getWhiteBB() {
+		return whiteBB;
+	}
+
+	public long getBlackBB() {
+		return blackBB;
+	}
+
+	public long getPackedState() {
+		return packedState;
+	}
+
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Position)) {
+			return false;
+		}
+		Position other = (Position) obj;
+		return zobristKey == other.zobristKey
+				&& GameState.positionState(packedState) == GameState.positionState(other.packedState)
+				&& pawnsBB == other.pawnsBB
+				&& knightsBB == other.knightsBB
+				&& bishopsBB == other.bishopsBB
+				&& rooksBB == other.rooksBB
+				&& queensBB == other.queensBB
+				&& kingsBB == other.kingsBB
+				&& whiteBB == other.whiteBB
+				&& blackBB == other.blackBB;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(zobristKey);
+	}
+}
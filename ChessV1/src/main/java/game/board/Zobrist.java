@@ -0,0 +1,112 @@
+package game.board;
+
+import java.util.Random;
+
+import game.movegeneration.pieces.PieceI;
+
+/**
+ * The Zobrist class holds the random keys used to identify a chess position by a 64-bit hash.
+ *
+ * <p>
+ * The key of a position is the XOR of the keys of every piece on its square, the side to move,
+ * the castling rights and the en passant file. As XOR is its own inverse the key can be updated
+ * incrementally whenever a piece is added, removed or one of the other properties changes.
+ * </p>
+ *
+ * @see game.board.Board
+ * @see game.board.GameState
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class Zobrist {
+	/**
+	 * Fixed seed, so that keys are identical in every run.
+	 */
+	private static final long seed = 29426028L;
+
+	/**
+	 * Keys for each piece [colour][pieceType][square], pieceType 0 is unused.
+	 */
+	protected static final long[][][] piecesArray = new long[2][7][64];
+	/**
+	 * Keys for each combination of castling rights.
+	 */
+	protected static final long[] castlingRights = new long[16];
+	/**
+	 * Keys for the en passant file (0-7).
+	 */
+	protected static final long[] enPassantFile = new long[8];
+	/**
+	 * Key XORed into the hash when black is to move.
+	 */
+	protected static final long sideToMove;
+
+	static {
+		Random random = new Random(seed);
+
+		for (int colour = 0; colour < 2; colour++) {
+			for (int pieceType = 1; pieceType <= 6; pieceType++) {
+				for (int square = 0; square < 64; square++) {
+					piecesArray[colour][pieceType][square] = random.nextLong();
+				}
+			}
+		}
+		for (int i = 0; i < castlingRights.length; i++) {
+			castlingRights[i] = random.nextLong();
+		}
+		for (int i = 0; i < enPassantFile.length; i++) {
+			enPassantFile[i] = random.nextLong();
+		}
+		sideToMove = random.nextLong();
+	}
+
+	/**
+	 * Gets the key of a piece on a square.
+	 *
+	 * @param pieceType   The type of the piece (1-6).
+	 * @param pieceColour The color of the piece (0 for white, 1 for black).
+	 * @param square      The square of the piece in bitboard annotation (0-63).
+	 * @return The key of the piece.
+	 */
+	public static long pieceKey(int pieceType, int pieceColour, int square) {
+		return piecesArray[pieceColour][pieceType][square];
+	}
+
+	/**
+	 * Gets the combined key of the castling rights, en passant file and side to move of a game state.
+	 *
+	 * @param gameState The game state.
+	 * @return The key of the state information.
+	 */
+	public static long stateKey(GameState gameState) {
+		long key = castlingRights[gameState.getCastleRights()];
+
+		if (gameState.getEnPassantFile() >= 0) {
+			key ^= enPassantFile[gameState.getEnPassantFile()];
+		}
+		if (!gameState.getIsWhiteToMove()) {
+			key ^= sideToMove;
+		}
+		return key;
+	}
+
+	/**
+	 * Calculates the key of a position from scratch.
+	 * Only needed when a new position is loaded, afterwards the key is updated incrementally.
+	 *
+	 * @param square    The array representing the chess board squares.
+	 * @param gameState The current game state.
+	 * @return The Zobrist key of the position.
+	 */
+	public static long calculateZobristKey(byte[] square, GameState gameState) {
+		long key = 0L;
+
+		for (int i = 0; i < square.length; i++) {
+			if (square[i] != PieceI.empty) {
+				key ^= pieceKey(PieceI.getPieceType(square[i]), PieceI.getPieceColour(square[i]), i);
+			}
+		}
+		return key ^ stateKey(gameState);
+	}
+}
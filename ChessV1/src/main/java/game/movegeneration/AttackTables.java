@@ -0,0 +1,89 @@
+package game.movegeneration;
+
+/**
+ * The AttackTables class provides precomputed attacks of the knight, king and pawns for every square.
+ *
+ * <p>
+ * The tables are filled once when the class is loaded, looking up the attacks of a piece replaces
+ * shifting through the move offsets and checking the board edges on every call.
+ * </p>
+ *
+ * @see game.movegeneration.MagicBitBoards
+ * @see game.movegeneration.BitBoards
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public final class AttackTables {
+	private static final int[][] knightDirections = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+	private static final int[][] kingDirections = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+	private static final long[] knightTable = new long[64];
+	private static final long[] kingTable = new long[64];
+	/**
+	 * Pawn attacks [colour][square], colour 0 for white, 1 for black.
+	 */
+	private static final long[][] pawnTable = new long[2][64];
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			knightTable[square] = stepAttacks(square, knightDirections);
+			kingTable[square] = stepAttacks(square, kingDirections);
+			pawnTable[0][square] = stepAttacks(square, new int[][] {{1, 1}, {1, -1}});
+			pawnTable[1][square] = stepAttacks(square, new int[][] {{-1, 1}, {-1, -1}});
+		}
+	}
+
+	private AttackTables() {
+	}
+
+	/**
+	 * Gets the squares a knight on the given square attacks.
+	 *
+	 * @param square The square of the knight (0-63).
+	 * @return Bitboard of the attacked squares.
+	 */
+	public static long knightAttacks(int square) {
+		return knightTable[square];
+	}
+
+	/**
+	 * Gets the squares a king on the given square attacks.
+	 *
+	 * @param square The square of the king (0-63).
+	 * @return Bitboard of the attacked squares.
+	 */
+	public static long kingAttacks(int square) {
+		return kingTable[square];
+	}
+
+	/**
+	 * Gets the squares a pawn on the given square attacks diagonally.
+	 *
+	 * @param square  The square of the pawn (0-63).
+	 * @param isWhite Whether the pawn is white.
+	 * @return Bitboard of the attacked squares.
+	 */
+	public static long pawnAttacks(int square, boolean isWhite) {
+		return pawnTable[isWhite ? 0 : 1][square];
+	}
+
+	/**
+	 * Calculates the squares reached with a single step in each of the given directions.
+	 *
+	 * @param square     The starting square (0-63).
+	 * @param directions The rank and file offsets of the steps.
+	 * @return Bitboard of the reached squares on the board.
+	 */
+	private static long stepAttacks(int square, int[][] directions) {
+		long attacks = 0L;
+		for (int[] direction : directions) {
+			int rank = square / 8 + direction[0];
+			int file = square % 8 + direction[1];
+			if (rank >= 0 && rank < 8 && file >= 0 && file < 8) {
+				attacks |= 1L << (rank * 8 + file);
+			}
+		}
+		return attacks;
+	}
+}
@@ -0,0 +1,110 @@
+package game.movegeneration;
+
+/**
+ * The LineTables class provides precomputed rays, lines and in between masks for every pair of squares.
+ *
+ * <p>
+ * Checks and pins only happen along the rank, file or diagonal shared by the king and the slider.
+ * With these tables the squares a check can be blocked on and the squares a pinned piece can move to are a single lookup.
+ * Squares that do not share a rank, file or diagonal have an empty line and an empty between mask.
+ * </p>
+ *
+ * @see game.movegeneration.BitBoards
+ * @see game.movegeneration.MagicBitBoards
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public final class LineTables {
+	public static final int north = 0;
+	public static final int south = 1;
+	public static final int east = 2;
+	public static final int west = 3;
+	public static final int northEast = 4;
+	public static final int southWest = 5;
+	public static final int northWest = 6;
+	public static final int southEast = 7;
+
+	/**
+	 * Rank and file offset of every direction, in the order of the direction constants.
+	 */
+	private static final int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {-1, -1}, {1, -1}, {-1, 1}};
+
+	/**
+	 * Squares from a square to the board edge in a direction [direction][square], without the square itself.
+	 */
+	private static final long[][] rayTable = new long[8][64];
+	/**
+	 * Squares strictly between two squares [from][to].
+	 */
+	private static final long[][] betweenTable = new long[64][64];
+	/**
+	 * Full rank, file or diagonal through two squares, from edge to edge [from][to].
+	 */
+	private static final long[][] lineTable = new long[64][64];
+
+	static {
+		for (int direction = 0; direction < 8; direction++) {
+			for (int square = 0; square < 64; square++) {
+				int rank = square / 8 + directions[direction][0];
+				int file = square % 8 + directions[direction][1];
+				while (rank >= 0 && rank < 8 && file >= 0 && file < 8) {
+					rayTable[direction][square] |= 1L << (rank * 8 + file);
+					rank += directions[direction][0];
+					file += directions[direction][1];
+				}
+			}
+		}
+
+		for (int from = 0; from < 64; from++) {
+			// opposite directions are stored next to each other
+			for (int direction = 0; direction < 8; direction++) {
+				int opposite = direction ^ 1;
+				long ray = rayTable[direction][from];
+
+				while (ray != 0) {
+					int to = Long.numberOfTrailingZeros(ray);
+					betweenTable[from][to] = rayTable[direction][from] & rayTable[opposite][to];
+					lineTable[from][to] = rayTable[direction][from] | rayTable[opposite][from] | (1L << from);
+					ray &= ray - 1;
+				}
+			}
+		}
+	}
+
+	private LineTables() {
+	}
+
+	/**
+	 * Gets the squares from a square to the edge of the board in a direction.
+	 *
+	 * @param direction The direction, one of the direction constants.
+	 * @param square    The starting square (0-63), not part of the ray.
+	 * @return Bitboard of the ray.
+	 */
+	public static long ray(int direction, int square) {
+		return rayTable[direction][square];
+	}
+
+	/**
+	 * Gets the squares strictly between two squares on the same rank, file or diagonal.
+	 *
+	 * @param from The first square (0-63).
+	 * @param to   The second square (0-63).
+	 * @return Bitboard of the squares in between, empty if the squares are not aligned or adjacent.
+	 */
+	public static long between(int from, int to) {
+		return betweenTable[from][to];
+	}
+
+	/**
+	 * Gets the full rank, file or diagonal through two squares.
+	 *
+	 * @param from The first square (0-63).
+	 * @param to   The second square (0-63).
+	 * @return Bitboard of the line including both squares, empty if the squares are not aligned.
+	 */
+	public static long line(int from, int to) {
+		return lineTable[from][to];
+	}
+}
@@ -0,0 +1,194 @@
+package game.movegeneration;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The MagicBitBoards class provides precomputed attack tables for the sliding pieces.
+ *
+ * <p>
+ * For every square only the occupancy of the squares a rook or bishop could be blocked on is relevant (the mask).
+ * Multiplying the masked occupancy with a magic number moves these bits into the highest bits of the product,
+ * so that after the shift they form a unique index into the table of attacks of that square.
+ * The attacks of a slider are therefore a mask, a multiplication, a shift and an array load.
+ * </p>
+ * <p>
+ * The magic numbers are searched once when the class is loaded, with a fixed seed so that they are identical in every run.
+ * </p>
+ *
+ * @see game.movegeneration.BitBoards
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public final class MagicBitBoards {
+	/**
+	 * Fixed seed for the magic number search.
+	 */
+	private static final long seed = 728L;
+
+	private static final int[][] rookDirections = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+	private static final int[][] bishopDirections = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+	private static final long[] rookMasks = new long[64];
+	private static final long[] rookMagics = new long[64];
+	private static final int[] rookShifts = new int[64];
+	private static final long[][] rookTable = new long[64][];
+
+	private static final long[] bishopMasks = new long[64];
+	private static final long[] bishopMagics = new long[64];
+	private static final int[] bishopShifts = new int[64];
+	private static final long[][] bishopTable = new long[64][];
+
+	static {
+		Random random = new Random(seed);
+
+		for (int square = 0; square < 64; square++) {
+			rookMasks[square] = relevantOccupancy(square, rookDirections);
+			rookShifts[square] = 64 - Long.bitCount(rookMasks[square]);
+			rookTable[square] = new long[1 << Long.bitCount(rookMasks[square])];
+			rookMagics[square] = findMagic(square, rookMasks[square], rookShifts[square], rookDirections, rookTable[square], random);
+
+			bishopMasks[square] = relevantOccupancy(square, bishopDirections);
+			bishopShifts[square] = 64 - Long.bitCount(bishopMasks[square]);
+			bishopTable[square] = new long[1 << Long.bitCount(bishopMasks[square])];
+			bishopMagics[square] = findMagic(square, bishopMasks[square], bishopShifts[square], bishopDirections, bishopTable[square], random);
+		}
+	}
+
+	private MagicBitBoards() {
+	}
+
+	/**
+	 * Gets the squares a rook on the given square attacks, including the first blocker in every direction.
+	 *
+	 * @param square    The square of the rook (0-63).
+	 * @param occupancy Bitboard of all pieces on the board.
+	 * @return Bitboard of the attacked squares.
+	 */
+	public static long rookAttacks(int square, long occupancy) {
+		return rookTable[square][(int) (((occupancy & rookMasks[square]) * rookMagics[square]) >>> rookShifts[square])];
+	}
+
+	/**
+	 * Gets the squares a bishop on the given square attacks, including the first blocker in every direction.
+	 *
+	 * @param square    The square of the bishop (0-63).
+	 * @param occupancy Bitboard of all pieces on the board.
+	 * @return Bitboard of the attacked squares.
+	 */
+	public static long bishopAttacks(int square, long occupancy) {
+		return bishopTable[square][(int) (((occupancy & bishopMasks[square]) * bishopMagics[square]) >>> bishopShifts[square])];
+	}
+
+	/**
+	 * Gets the squares a queen on the given square attacks, including the first blocker in every direction.
+	 *
+	 * @param square    The square of the queen (0-63).
+	 * @param occupancy Bitboard of all pieces on the board.
+	 * @return Bitboard of the attacked squares.
+	 */
+	public static long queenAttacks(int square, long occupancy) {
+		return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+	}
+
+	// ### Helper Methods
+	/**
+	 * Searches a magic number for a square and fills its attack table.
+	 *
+	 * @param square     The square (0-63).
+	 * @param mask       The relevant occupancy mask of the square.
+	 * @param shift      The shift, 64 minus the number of bits in the mask.
+	 * @param directions The directions the piece slides in.
+	 * @param table      The attack table of the square, filled with the attacks for the found magic.
+	 * @param random     The random number generator.
+	 * @return The magic number.
+	 */
+	private static long findMagic(int square, long mask, int shift, int[][] directions, long[] table, Random random) {
+		int size = 1 << Long.bitCount(mask);
+		long[] occupancies = new long[size];
+		long[] attacks = new long[size];
+
+		// enumerate all subsets of the mask
+		long subset = 0L;
+		for (int i = 0; i < size; i++) {
+			occupancies[i] = subset;
+			attacks[i] = slidingAttacks(square, subset, directions);
+			subset = (subset - mask) & mask;
+		}
+
+		while (true) {
+			// magic numbers with few set bits work best
+			long magic = random.nextLong() & random.nextLong() & random.nextLong();
+			if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+				continue;
+			}
+
+			// attacks are never empty, so 0 marks an unused entry
+			Arrays.fill(table, 0L);
+			boolean collision = false;
+			for (int i = 0; i < size && !collision; i++) {
+				int index = (int) ((occupancies[i] * magic) >>> shift);
+				if (table[index] == 0L) {
+					table[index] = attacks[i];
+				} else if (table[index] != attacks[i]) {
+					collision = true;
+				}
+			}
+			if (!collision) {
+				return magic;
+			}
+		}
+	}
+
+	/**
+	 * Calculates the squares that can block a slider, the last square of every ray is left out as nothing lies behind it.
+	 *
+	 * @param square     The square of the slider (0-63).
+	 * @param directions The directions the piece slides in.
+	 * @return The relevant occupancy mask.
+	 */
+	private static long relevantOccupancy(int square, int[][] directions) {
+		long mask = 0L;
+		for (int[] direction : directions) {
+			int rank = square / 8 + direction[0];
+			int file = square % 8 + direction[1];
+			while (isOnBoard(rank + direction[0], file + direction[1])) {
+				mask |= 1L << (rank * 8 + file);
+				rank += direction[0];
+				file += direction[1];
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Walks the rays of a slider one square at a time, only used to fill the tables.
+	 *
+	 * @param square     The square of the slider (0-63).
+	 * @param occupancy  Bitboard of the pieces that block the slider.
+	 * @param directions The directions the piece slides in.
+	 * @return Bitboard of the attacked squares.
+	 */
+	private static long slidingAttacks(int square, long occupancy, int[][] directions) {
+		long attacks = 0L;
+		for (int[] direction : directions) {
+			int rank = square / 8 + direction[0];
+			int file = square % 8 + direction[1];
+			while (isOnBoard(rank, file)) {
+				long target = 1L << (rank * 8 + file);
+				attacks |= target;
+				if ((occupancy & target) != 0) {
+					break;
+				}
+				rank += direction[0];
+				file += direction[1];
+			}
+		}
+		return attacks;
+	}
+
+	private static boolean isOnBoard(int rank, int file) {
+		return rank >= 0 && rank < 8 && file >= 0 && file < 8;
+	}
+}
@@ -0,0 +1,53 @@
+package game.movegeneration;
+
+import game.board.Board;
+import game.movegeneration.pieces.PieceI;
+
+/**
+ * The MoveCounter class is a {@link MoveSink} that only counts the moves.
+ *
+ * <p>
+ * The targets are counted with a population count of the target bitboards, no move is encoded.
+ * This is the bulk counting at the leaves of a perft, where the moves of the last ply are never made.
+ * Promotions count once for every promotion piece, as they are generated.
+ * </p>
+ *
+ * @see game.movegeneration.MoveGenerator
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class MoveCounter implements MoveSink {
+	private static final long promotionRanks = PieceI.rank1 | PieceI.Rank8;
+
+	public long count;
+
+	/**
+	 * Resets the count to zero.
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	@Override
+	public boolean accept(int move) {
+		count++;
+		return true;
+	}
+
+	@Override
+	public boolean acceptTargets(Board board, int from, long targets) {
+		count += Long.bitCount(targets);
+		if (PieceI.getPieceType(board.square[from]) == 1) {
+			// queen plus three underpromotions
+			count += 3 * Long.bitCount(targets & promotionRanks);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean acceptPawnTargets(Board board, long targets, int shift) {
+		count += Long.bitCount(targets) + 3 * Long.bitCount(targets & promotionRanks);
+		return true;
+	}
+}
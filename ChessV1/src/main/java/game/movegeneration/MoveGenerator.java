@@ -0,0 +1,486 @@
+package game.movegeneration;
+
+import game.board.Board;
+import game.movegeneration.pieces.King;
+import game.movegeneration.pieces.Pawn;
+import game.movegeneration.pieces.PieceI;
+import game.search.Move;
+
+/**
+ * The MoveGenerator class generates all legal moves of the side to move.
+ *
+ * <p>
+ * The moves are pushed into a {@link MoveSink}, see {@link #generateAll(Board, MoveSink)}, so the consumer decides what is built:
+ * a {@link MoveList} stores the encoded moves, a {@link MoveCounter} counts the targets without encoding them,
+ * and a sink can stop the generation early, as {@link #hasLegalMove(Board)} does after the first move.
+ * The methods taking an {@code int[]} fill a primitive move buffer.
+ * </p>
+ * <p>
+ * Pawns are generated set-wise: the pushes, double pushes and captures of all pawns that are not pinned are a few shifts of the whole pawn bitboard,
+ * masked with the empty squares, the enemy pieces and the check mask.
+ * The from square of every target is the target minus the shift, so the moves are serialized without looking at single pawns.
+ * Only pinned pawns and en passant, which involve at most a few pawns, are generated one pawn at a time.
+ * Knights that are not pinned read their targets from the attack table, pinned knights can never move.
+ * Bishops, rooks, queens and the king are generated by their piece classes, looping over the own pieces instead of all 64 squares.
+ * </p>
+ * <p>
+ * When the side to move is in check the moves are generated by {@link #generateEvasions(Board, MoveSink)} instead,
+ * which only looks at the moves that can resolve the check.
+ * </p>
+ * <p>
+ * {@link #generatePseudoLegal(Board, MoveSink)} skips the pin and check masks and the king safety test,
+ * the moves that leave the own king in check are only filtered out by {@link #isLegal(Board, int)} when a move is about to be played.
+ * This is cheaper whenever a beta cutoff happens before most moves are tried.
+ * </p>
+ *
+ * @see game.movegeneration.pieces.PieceI
+ * @see game.movegeneration.BitBoards#updateLegality(boolean)
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public final class MoveGenerator {
+	/**
+	 * Kinds of moves: captures, en passant and promotions are tactical moves, all other moves are quiet.
+	 */
+	private static final int tacticalMoves = 1;
+	private static final int quietMoves = 2;
+	private static final int allMoves = tacticalMoves | quietMoves;
+
+	/**
+	 * Stops the generation at the first move, used to test whether any legal move exists.
+	 */
+	private static final MoveSink firstMoveSink = move -> false;
+
+	private MoveGenerator() {
+	}
+
+	/**
+	 * Generates all legal moves of the side to move into a buffer, promotions are generated for every promotion piece.
+	 *
+	 * @param board The board.
+	 * @param moves The buffer for the encoded moves, at least {@code MoveOrdering.maxMoveCount} long.
+	 * @return The number of generated moves.
+	 */
+	public static int generateMoves(Board board, int[] moves) {
+		MoveList moveList = new MoveList(moves);
+		generateAll(board, moveList);
+		return moveList.count;
+	}
+
+	/**
+	 * Generates the legal moves of the side to move into a buffer when it is in check.
+	 *
+	 * @param board The board, the side to move must be in check.
+	 * @param moves The buffer for the encoded moves.
+	 * @return The number of generated moves.
+	 * @see #generateEvasions(Board, MoveSink)
+	 */
+	public static int generateEvasions(Board board, int[] moves) {
+		MoveList moveList = new MoveList(moves);
+		generateEvasions(board, moveList);
+		return moveList.count;
+	}
+
+	/**
+	 * Generates the pseudo-legal moves of the side to move into a buffer.
+	 *
+	 * @param board The board.
+	 * @param moves The buffer for the encoded moves.
+	 * @return The number of generated moves.
+	 * @see #generatePseudoLegal(Board, MoveSink)
+	 */
+	public static int generatePseudoLegalMoves(Board board, int[] moves) {
+		MoveList moveList = new MoveList(moves);
+		generatePseudoLegal(board, moveList);
+		return moveList.count;
+	}
+
+	/**
+	 * Checks whether the side to move has any legal move, the generation stops at the first one.
+	 *
+	 * @param board The board.
+	 * @return True if there is a legal move, false in checkmate and stalemate.
+	 */
+	public static boolean hasLegalMove(Board board) {
+		return !generateAll(board, firstMoveSink);
+	}
+
+	/**
+	 * Generates all legal moves of the side to move into a sink, promotions are generated for every promotion piece.
+	 *
+	 * @param board The board.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	public static boolean generateAll(Board board, MoveSink sink) {
+		return generate(board, true, allMoves, sink);
+	}
+
+	/**
+	 * Generates the captures, en passant captures and promotions of the side to move into a sink, the moves of the first search stage.
+	 * Quiet moves are neither generated nor encoded.
+	 *
+	 * @param board The board.
+	 * @param legal Whether only legal moves are generated, otherwise pseudo-legal moves that have to be checked with {@link #isLegal(Board, int)}.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	public static boolean generateCaptures(Board board, boolean legal, MoveSink sink) {
+		return generate(board, legal, tacticalMoves, sink);
+	}
+
+	/**
+	 * Generates the quiet moves of the side to move into a sink, all moves {@link #generateCaptures(Board, boolean, MoveSink)} leaves out,
+	 * castling included.
+	 *
+	 * @param board The board.
+	 * @param legal Whether only legal moves are generated, otherwise pseudo-legal moves that have to be checked with {@link #isLegal(Board, int)}.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	public static boolean generateQuiets(Board board, boolean legal, MoveSink sink) {
+		return generate(board, legal, quietMoves, sink);
+	}
+
+	/**
+	 * Generates the legal moves of the side to move into a sink when it is in check.
+	 * In double check only the king can move. In single check the king steps out of the check,
+	 * or a piece that is not pinned captures the checker or blocks the ray between checker and king.
+	 * A pinned piece can never resolve a check, so pinned pieces and castling are not looked at.
+	 *
+	 * @param board The board, the side to move must be in check.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	public static boolean generateEvasions(Board board, MoveSink sink) {
+		return generateEvasions(board, allMoves, sink);
+	}
+
+	/**
+	 * Generates the pseudo-legal moves of the side to move into a sink, moves that leave the own king in check are included.
+	 * Every move has to be checked with {@link #isLegal(Board, int)} before it is played.
+	 * In check the legal evasions are generated, as most pseudo-legal moves would not resolve the check.
+	 *
+	 * @param board The board.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	public static boolean generatePseudoLegal(Board board, MoveSink sink) {
+		return generate(board, false, allMoves, sink);
+	}
+
+	/**
+	 * Checks whether a pseudo-legal move of the side to move leaves the own king safe.
+	 * Uses the pinned pieces and the check mask of the position and, for king moves and en passant, an attack test of the king square.
+	 *
+	 * @param board The board before the move.
+	 * @param move  A pseudo-legal encoded move, e.g. from {@link #generatePseudoLegalMoves(Board, int[])}.
+	 * @return True if the move is legal.
+	 */
+	public static boolean isLegal(Board board, int move) {
+		BitBoards bitBoards = board.bitBoards;
+		boolean isWhite = board.gameState.getIsWhiteToMove();
+		bitBoards.updateLegality(isWhite);
+
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int flag = Move.getFlag(move);
+		long king = (isWhite ? bitBoards.whiteKingBB : bitBoards.blackKingBB);
+
+		if (Move.getPieceType(move) == 6) {
+			// castling was checked when it was generated
+			if (flag == Move.castleFlag) {
+				return true;
+			}
+			// without the king sliders also attack the squares behind it
+			return !bitBoards.isSquareAttacked(to, !isWhite, bitBoards.allBB & ~king);
+		}
+		if (flag == Move.enPassantCaptureFlag) {
+			// two pawns leave the rank at once, test the king on the occupancy after the capture
+			return bitBoards.checkEnPassantPin(from, isWhite, to % 8);
+		}
+		if ((bitBoards.checkMask & (1L << to)) == 0) {
+			return false;
+		}
+		return (bitBoards.pinned & (1L << from)) == 0
+				|| (LineTables.line(Long.numberOfTrailingZeros(king), from) & (1L << to)) != 0;
+	}
+
+	/**
+	 * Generates the moves of the given kinds of the side to move, the evasions when it is in check.
+	 *
+	 * @param board The board.
+	 * @param legal Whether only legal moves are generated, otherwise pins and the king safety are ignored.
+	 * @param kinds The kinds of moves, {@link #tacticalMoves}, {@link #quietMoves} or {@link #allMoves}.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	private static boolean generate(Board board, boolean legal, int kinds, MoveSink sink) {
+		BitBoards bitBoards = board.bitBoards;
+		boolean isWhite = board.gameState.getIsWhiteToMove();
+		bitBoards.updateLegality(isWhite);
+
+		if (bitBoards.checkers != 0) {
+			return generateEvasions(board, kinds, sink);
+		}
+
+		if (!generatePawnMoves(board, isWhite, legal, kinds, sink) || !generateKnightMoves(board, isWhite, legal, kinds, sink)) {
+			return false;
+		}
+
+		long own = (isWhite ? bitBoards.whiteBB : bitBoards.blackBB);
+		long targetMask = targetMask(bitBoards, isWhite, kinds);
+		long king = (isWhite ? bitBoards.whiteKingBB : bitBoards.blackKingBB);
+
+		if (legal) {
+			// the sliders first, then the king
+			long pieces = own & (bitBoards.bishopsBB | bitBoards.rooksBB | bitBoards.queensBB);
+			while (pieces != 0) {
+				if (!acceptPieceMoves(board, Long.numberOfTrailingZeros(pieces), kinds, targetMask, sink)) {
+					return false;
+				}
+				pieces &= pieces - 1;
+			}
+			return (king == 0 || acceptPieceMoves(board, Long.numberOfTrailingZeros(king), kinds, targetMask, sink));
+		}
+
+		long diagonal = own & (bitBoards.bishopsBB | bitBoards.queensBB);
+		long orthogonal = own & (bitBoards.rooksBB | bitBoards.queensBB);
+		while (diagonal != 0) {
+			int from = Long.numberOfTrailingZeros(diagonal);
+			if (!sink.acceptTargets(board, from, MagicBitBoards.bishopAttacks(from, bitBoards.allBB) & targetMask)) {
+				return false;
+			}
+			diagonal &= diagonal - 1;
+		}
+		while (orthogonal != 0) {
+			int from = Long.numberOfTrailingZeros(orthogonal);
+			if (!sink.acceptTargets(board, from, MagicBitBoards.rookAttacks(from, bitBoards.allBB) & targetMask)) {
+				return false;
+			}
+			orthogonal &= orthogonal - 1;
+		}
+
+		// castling is generated legal, it is rare and its attack test can not be done after the move
+		if (king != 0) {
+			int from = Long.numberOfTrailingZeros(king);
+			long targets = AttackTables.kingAttacks(from) & targetMask;
+			if ((kinds & quietMoves) != 0) {
+				targets |= King.generateCastling(bitBoards, from, isWhite, board.gameState);
+			}
+			return sink.acceptTargets(board, from, targets);
+		}
+		return true;
+	}
+
+	/**
+	 * Generates the legal evasions of the given kinds when the side to move is in check, see {@link #generateEvasions(Board, MoveSink)}.
+	 *
+	 * @param board The board, the side to move must be in check.
+	 * @param kinds The kinds of moves, {@link #tacticalMoves}, {@link #quietMoves} or {@link #allMoves}.
+	 * @param sink  The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	private static boolean generateEvasions(Board board, int kinds, MoveSink sink) {
+		BitBoards bitBoards = board.bitBoards;
+		boolean isWhite = board.gameState.getIsWhiteToMove();
+		bitBoards.updateLegality(isWhite);
+
+		long own = (isWhite ? bitBoards.whiteBB : bitBoards.blackBB);
+		long king = (isWhite ? bitBoards.whiteKingBB : bitBoards.blackKingBB);
+		int kingpos = Long.numberOfTrailingZeros(king);
+		long targetMask = targetMask(bitBoards, isWhite, kinds);
+
+		// king steps, without the king sliders also attack the squares behind it
+		long candidates = AttackTables.kingAttacks(kingpos) & targetMask;
+		long occupancy = bitBoards.allBB & ~king;
+		long targets = 0L;
+		while (candidates != 0) {
+			int to = Long.numberOfTrailingZeros(candidates);
+			if (!bitBoards.isSquareAttacked(to, !isWhite, occupancy)) {
+				targets |= 1L << to;
+			}
+			candidates &= candidates - 1;
+		}
+		if (!sink.acceptTargets(board, kingpos, targets)) {
+			return false;
+		}
+
+		// double check, the check mask is empty
+		if (bitBoards.checkMask == 0) {
+			return true;
+		}
+
+		if (!generatePawnMoves(board, isWhite, true, kinds, sink) || !generateKnightMoves(board, isWhite, true, kinds, sink)) {
+			return false;
+		}
+
+		// sliders can only capture the checker or block, the check mask never contains own pieces
+		long checkMask = bitBoards.checkMask & targetMask;
+		long sliders = own & ~bitBoards.pinned;
+		long diagonal = sliders & (bitBoards.bishopsBB | bitBoards.queensBB);
+		long orthogonal = sliders & (bitBoards.rooksBB | bitBoards.queensBB);
+		while (diagonal != 0) {
+			int from = Long.numberOfTrailingZeros(diagonal);
+			if (!sink.acceptTargets(board, from, MagicBitBoards.bishopAttacks(from, bitBoards.allBB) & checkMask)) {
+				return false;
+			}
+			diagonal &= diagonal - 1;
+		}
+		while (orthogonal != 0) {
+			int from = Long.numberOfTrailingZeros(orthogonal);
+			if (!sink.acceptTargets(board, from, MagicBitBoards.rookAttacks(from, bitBoards.allBB) & checkMask)) {
+				return false;
+			}
+			orthogonal &= orthogonal - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Generates the moves of all pawns, set-wise for the pawns that are not pinned or, if pins are ignored, for all pawns.
+	 * Captures, en passant and promotions, pushes onto the last rank included, are tactical moves, all other pushes are quiet moves.
+	 *
+	 * @param board   The board.
+	 * @param isWhite Whether the white pawns are generated.
+	 * @param legal   Whether only legal moves are generated, otherwise pins and checks are ignored.
+	 * @param kinds   The kinds of moves, {@link #tacticalMoves}, {@link #quietMoves} or {@link #allMoves}.
+	 * @param sink    The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	private static boolean generatePawnMoves(Board board, boolean isWhite, boolean legal, int kinds, MoveSink sink) {
+		BitBoards bitBoards = board.bitBoards;
+		long pawns = (isWhite ? bitBoards.whitePawnsBB : bitBoards.blackPawnsBB);
+		long freePawns = (legal ? pawns & ~bitBoards.pinned : pawns);
+		long empty = ~bitBoards.allBB;
+		long enemies = (isWhite ? bitBoards.blackBB : bitBoards.whiteBB);
+		long checkMask = (legal ? bitBoards.checkMask : ~0L);
+		long promotionRank = (isWhite ? PieceI.Rank8 : PieceI.rank1);
+		boolean tactical = (kinds & tacticalMoves) != 0;
+		boolean quiet = (kinds & quietMoves) != 0;
+
+		// the shift from the from square to the target of a push, and of the captures towards the a and h file
+		int push = (isWhite ? 8 : -8);
+		int captureWest = (isWhite ? 7 : -9);
+		int captureEast = (isWhite ? 9 : -7);
+
+		long singlePushes = shift(freePawns, push) & empty;
+		if (quiet) {
+			long doublePushes = shift(singlePushes & (isWhite ? PieceI.rank3 : PieceI.rank6), push) & empty & checkMask;
+			if (!sink.acceptPawnTargets(board, singlePushes & checkMask & ~promotionRank, push)
+					|| !sink.acceptPawnTargets(board, doublePushes, 2 * push)) {
+				return false;
+			}
+		}
+
+		int epFile = board.gameState.getEnPassantFile();
+		int epTarget = epFile + (isWhite ? 40 : 16);
+		if (tactical) {
+			long westCaptures = shift(freePawns & PieceI.notAFile, captureWest) & enemies & checkMask;
+			long eastCaptures = shift(freePawns & PieceI.notHFile, captureEast) & enemies & checkMask;
+			if (!sink.acceptPawnTargets(board, singlePushes & checkMask & promotionRank, push)
+					|| !sink.acceptPawnTargets(board, westCaptures, captureWest)
+					|| !sink.acceptPawnTargets(board, eastCaptures, captureEast)) {
+				return false;
+			}
+
+			// en passant, the pawns that attack the target square from the side
+			if (epFile >= 0) {
+				long candidates = freePawns & AttackTables.pawnAttacks(epTarget, !isWhite);
+				while (candidates != 0) {
+					int from = Long.numberOfTrailingZeros(candidates);
+					long target = (legal ? Pawn.generateCaptures(bitBoards, from, isWhite, board.gameState) & (1L << epTarget) : 1L << epTarget);
+					if (!sink.acceptTargets(board, from, target)) {
+						return false;
+					}
+					candidates &= candidates - 1;
+				}
+			}
+		}
+
+		// pinned pawns one at a time, they can only move along the pin and never resolve a check
+		long pinnedPawns = (legal && bitBoards.checkers == 0 ? pawns & bitBoards.pinned : 0L);
+		long tacticalTargets = enemies | promotionRank | (epFile >= 0 ? 1L << epTarget : 0L);
+		long kindMask = (tactical ? tacticalTargets : 0L) | (quiet ? ~tacticalTargets : 0L);
+		while (pinnedPawns != 0) {
+			int from = Long.numberOfTrailingZeros(pinnedPawns);
+			if (!sink.acceptTargets(board, from, Pawn.generateMove(bitBoards, from, isWhite, board.gameState) & kindMask)) {
+				return false;
+			}
+			pinnedPawns &= pinnedPawns - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Generates the moves of all knights, in legal mode only of the knights that are not pinned.
+	 *
+	 * @param board   The board.
+	 * @param isWhite Whether the white knights are generated.
+	 * @param legal   Whether only legal moves are generated, otherwise pins and checks are ignored.
+	 * @param kinds   The kinds of moves, {@link #tacticalMoves}, {@link #quietMoves} or {@link #allMoves}.
+	 * @param sink    The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	private static boolean generateKnightMoves(Board board, boolean isWhite, boolean legal, int kinds, MoveSink sink) {
+		BitBoards bitBoards = board.bitBoards;
+		long knights = (isWhite ? bitBoards.whiteKnightsBB : bitBoards.blackKnightsBB);
+		long targetMask = targetMask(bitBoards, isWhite, kinds);
+		if (legal) {
+			knights &= ~bitBoards.pinned;
+			targetMask &= bitBoards.checkMask;
+		}
+
+		while (knights != 0) {
+			int from = Long.numberOfTrailingZeros(knights);
+			if (!sink.acceptTargets(board, from, AttackTables.knightAttacks(from) & targetMask)) {
+				return false;
+			}
+			knights &= knights - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Generates the legal moves of a single piece with its piece class, only the captures if just the tactical moves are generated.
+	 *
+	 * @param board      The board.
+	 * @param from       The square of the piece.
+	 * @param kinds      The kinds of moves, {@link #tacticalMoves}, {@link #quietMoves} or {@link #allMoves}.
+	 * @param targetMask The target squares of the kinds, see {@link #targetMask(BitBoards, boolean, int)}.
+	 * @param sink       The sink receiving the moves.
+	 * @return True if all moves were generated, false if the sink stopped the generation.
+	 */
+	private static boolean acceptPieceMoves(Board board, int from, int kinds, long targetMask, MoveSink sink) {
+		int piece = board.square[from];
+		long targets = (kinds == tacticalMoves ? PieceI.generateCaptures(board.bitBoards, piece, from, board.gameState)
+				: PieceI.generateMove(board.bitBoards, piece, from, board.gameState) & targetMask);
+		return sink.acceptTargets(board, from, targets);
+	}
+
+	/**
+	 * Gets the target squares of the pieces other than pawns for the kinds of moves: the enemy pieces for tactical moves,
+	 * the empty squares for quiet moves.
+	 *
+	 * @param bitBoards The bitboards.
+	 * @param isWhite   Whether the moves of white are generated.
+	 * @param kinds     The kinds of moves, {@link #tacticalMoves}, {@link #quietMoves} or {@link #allMoves}.
+	 * @return Bitboard of the allowed target squares.
+	 */
+	private static long targetMask(BitBoards bitBoards, boolean isWhite, int kinds) {
+		long enemies = (isWhite ? bitBoards.blackBB : bitBoards.whiteBB);
+		return ((kinds & tacticalMoves) != 0 ? enemies : 0L) | ((kinds & quietMoves) != 0 ? ~bitBoards.allBB : 0L);
+	}
+
+	/**
+	 * Shifts a bitboard towards the higher squares for positive and the lower squares for negative shifts.
+	 *
+	 * @param bitboard The bitboard.
+	 * @param shift    The shift, between -63 and 63.
+	 * @return The shifted bitboard.
+	 */
+	private static long shift(long bitboard, int shift) {
+		return (shift > 0 ? bitboard << shift : bitboard >>> -shift);
+	}
+}
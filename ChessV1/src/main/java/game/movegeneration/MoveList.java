@@ -0,0 +1,43 @@
+package game.movegeneration;
+
+/**
+ * The MoveList class is a {@link MoveSink} that stores the encoded moves in a primitive buffer.
+ *
+ * <p>
+ * The buffer is handed in, so a list can wrap a buffer that is reused for every node of a search.
+ * </p>
+ *
+ * @see game.movegeneration.MoveGenerator
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class MoveList implements MoveSink {
+	/**
+	 * The encoded moves, the first {@link #count} entries are valid.
+	 */
+	public final int[] moves;
+	public int count;
+
+	/**
+	 * Creates an empty move list on a buffer.
+	 *
+	 * @param moves The buffer for the encoded moves, at least {@code MoveOrdering.maxMoveCount} long.
+	 */
+	public MoveList(int[] moves) {
+		this.moves = moves;
+	}
+
+	/**
+	 * Removes all moves, the buffer is kept.
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	@Override
+	public boolean accept(int move) {
+		moves[count++] = move;
+		return true;
+	}
+}
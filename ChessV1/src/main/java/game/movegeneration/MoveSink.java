@@ -0,0 +1,93 @@
+package game.movegeneration;
+
+import game.board.Board;
+import game.search.Move;
+
+/**
+ * The MoveSink interface receives the moves of the {@link MoveGenerator} as they are generated.
+ *
+ * <p>
+ * The generator pushes its moves straight into the sink, so every consumer only builds what it needs:
+ * a {@link MoveList} stores the encoded moves, a {@link MoveCounter} only counts the targets without encoding a single move,
+ * and a sink that returns false from {@link #accept(int)} stops the generation, e.g. after the first legal move.
+ * </p>
+ * <p>
+ * The generator hands over the targets of a piece, or of a set-wise generated pawn move, as a bitboard.
+ * The default methods encode every target and pass it to {@link #accept(int)}, sinks that do not need the moves override them.
+ * </p>
+ *
+ * @see game.movegeneration.MoveGenerator#generateAll(Board, MoveSink)
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public interface MoveSink {
+	/**
+	 * Receives one encoded move.
+	 *
+	 * @param move The encoded move.
+	 * @return True to continue the generation, false to stop it.
+	 */
+	boolean accept(int move);
+
+	/**
+	 * Receives the targets of a single piece, a promotion is passed once for every promotion piece.
+	 *
+	 * @param board   The board the moves are generated for.
+	 * @param from    The square of the piece.
+	 * @param targets Bitboard of the target squares.
+	 * @return True to continue the generation, false to stop it.
+	 */
+	default boolean acceptTargets(Board board, int from, long targets) {
+		while (targets != 0) {
+			if (!acceptMove(board, from, Long.numberOfTrailingZeros(targets))) {
+				return false;
+			}
+			targets &= targets - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Receives set-wise generated pawn moves, the from square of every target is the target minus the shift.
+	 *
+	 * @param board   The board the moves are generated for.
+	 * @param targets Bitboard of the target squares.
+	 * @param shift   The shift that moved the pawns onto the targets.
+	 * @return True to continue the generation, false to stop it.
+	 */
+	default boolean acceptPawnTargets(Board board, long targets, int shift) {
+		while (targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			if (!acceptMove(board, to - shift, to)) {
+				return false;
+			}
+			targets &= targets - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Encodes a move and passes it on, a promotion is passed once for every promotion piece, the queen first.
+	 *
+	 * @param board The board the moves are generated for.
+	 * @param from  The from square.
+	 * @param to    The target square.
+	 * @return True to continue the generation, false to stop it.
+	 */
+	private boolean acceptMove(Board board, int from, int to) {
+		int move = board.createMove(from, to, 5);
+		if (!accept(move)) {
+			return false;
+		}
+		// underpromotions
+		if (Move.isPromotion(move)) {
+			for (int promotionPieceType = 2; promotionPieceType < 5; promotionPieceType++) {
+				if (!accept(board.createMove(from, to, promotionPieceType))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
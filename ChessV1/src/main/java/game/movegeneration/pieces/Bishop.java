@@ -1,12 +1,12 @@
 package game.movegeneration.pieces;
 
-import java.util.List;
-
 import game.board.GameState;
 import game.movegeneration.BitBoards;
+import game.movegeneration.MagicBitBoards;
 
 /**
- * The Bishop class represents the Bishop chess piece and implements the PieceI interface.
+ * The Bishop class holds the move generation and attacks of the Bishop chess piece.
+ * It only has static methods, a bishop on the board is stored as a piece code, see {@link PieceI}.
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.PieceI
@@ -14,84 +14,67 @@ import game.movegeneration.BitBoards;
  * @author Ryu
  * @version 1.0
  */
-public class Bishop implements PieceI {
-	private final int pieceType = 3;
-	private final int pieceColour; // 0 for white, 1 for black
-	
+public final class Bishop {
+	private Bishop() {
+	}
+
 	/**
-     * Constructor for the Bishop class.
+     * Generates the legal moves of a bishop on the given square.
      *
-     * @param pieceColour The color of the bishop (0 for white, 1 for black).
-     * @param pos         The initial position of the bishop.
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the bishop.
+     * @param isWhite           Whether the bishop is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard representing possible moves.
      */
-	public Bishop(int pieceColour, int pos) {
-		this.pieceColour = pieceColour;
-
-		BitBoards.add(pos, pieceType, pieceColour);
-	}
-
-	@Override
-	public int getPieceType() {
-		return pieceType;
-	}
-
-	@Override
-	public int getPieceColour() {
-		return pieceColour;
-	}
-
-	@Override
-	public long generateMove(int from, boolean isWhite, GameState previousGameState) {
+	public static long generateMove(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
 		long position = 1L << from;
 		long possibleMoves = 0L;
 
-		if (BitBoards.doubleCheck(isWhite)) {
-			possibleMoves |= BitBoards.generateDiagonalSlider(position, isWhite, possibleMoves, false);
-			
-			//Remove options when king in check
-			long checkedMask = BitBoards.singleCheck(isWhite);
-			if (checkedMask != 0) {
-				possibleMoves &= checkedMask;
-			}
-			//Remove options when pinned
-			possibleMoves &= BitBoards.checkOrthogonalPin(from, isWhite);
-			possibleMoves &= BitBoards.checkDiagonalPin(from, isWhite);
+		bitBoards.updateLegality(isWhite);
+
+		if (bitBoards.checkMask != 0) {
+			possibleMoves |= bitBoards.generateDiagonalSlider(position, isWhite, possibleMoves, false);
 			
+			//Remove options when king in check or pinned
+			possibleMoves &= bitBoards.checkMask & bitBoards.pinRay(from, isWhite);
 		}
 		return possibleMoves;
 	}
 
+	/**
+     * Generates only the legal captures of a bishop on the given square, used by the quiescence search.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the bishop.
+     * @param isWhite           Whether the bishop is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the squares of the captured pieces.
+     */
+	public static long generateCaptures(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		bitBoards.updateLegality(isWhite);
+
+		return MagicBitBoards.bishopAttacks(from, bitBoards.allBB) & (isWhite ? bitBoards.blackBB : bitBoards.whiteBB)
+				& bitBoards.checkMask & bitBoards.pinRay(from, isWhite);
+	}
+
 
 	/**
      * Generates attacks for the bishop of the same color on the board.
      * Uses BitBoards to retrieve additional Piece Information and as such is static.
      * 
+     * @param bitBoards The bitboards of the position.
      * @param isWhite Whether the bishop is white.
      * @return Bitboard representing possible attacks.
      */
-	public static long generateSamePieceAttacks(boolean isWhite) {
+	public static long generateSamePieceAttacks(BitBoards bitBoards, boolean isWhite) {
 		long possibleMoves = 0L;
+		long pieceBB = (isWhite ? bitBoards.whiteBishopsBB : bitBoards.blackBishopsBB);
 
-		long pieceBB = (isWhite ? BitBoards.whiteBishopsBB:BitBoards.blackBishopsBB);
-
-		List<Long> individualBBBishop = BitBoards.createIndividualBitboards(pieceBB);
-		// Print the individual bitboards
-		for (long bb : individualBBBishop) {
-			possibleMoves |= BitBoards.generateDiagonalSlider(bb, isWhite, possibleMoves, true);
+		while (pieceBB != 0) {
+			possibleMoves |= MagicBitBoards.bishopAttacks(Long.numberOfTrailingZeros(pieceBB), bitBoards.allBB);
+			pieceBB &= pieceBB - 1;
 		}
 		return possibleMoves;
-
-	}
-
-	@Override
-	public void toggleBB(int square, boolean isWhite){
-		BitBoards.bishopsBB ^= 1L << square;
-
-		if (isWhite) {
-			BitBoards.whiteBB ^= 1L << square;
-		} else {
-			BitBoards.blackBB ^= 1L << square;
-		}
 	}
-
 }
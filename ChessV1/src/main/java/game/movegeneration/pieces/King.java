@@ -1,10 +1,12 @@
 package game.movegeneration.pieces;
 
 import game.board.GameState;
+import game.movegeneration.AttackTables;
 import game.movegeneration.BitBoards;
 
 /**
- * The King class represents the King chess piece and implements the PieceI interface.
+ * The King class holds the move generation and attacks of the King chess piece.
+ * It only has static methods, a king on the board is stored as a piece code, see {@link PieceI}.
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.PieceI
@@ -12,92 +14,52 @@ import game.movegeneration.BitBoards;
  * @author Ryu
  * @version 1.0
  */
-public class King implements PieceI {
-	/**
-     * Array representing king moves for move generation.
-     */
-	private static int[] kingMoves = {-9, -8, -7, -1, 1, 7, 8, 9};
-
-	private final int pieceType = 6;
-	private final int pieceColour; // 0 for white, 1 for black
+public final class King {
+	private King() {
+	}
 
 	/**
-     * Constructor for the King class.
+     * Generates the legal moves of a king on the given square.
      *
-     * @param pieceColour The color of the king (0 for white, 1 for black).
-     * @param pos         The initial position of the king.
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the king.
+     * @param isWhite           Whether the king is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard representing possible moves.
      */
-	public King(int pieceColour, int pos) {
-		this.pieceColour = pieceColour;
-
-		BitBoards.add(pos, pieceType, pieceColour);
-	}
-
-	@Override
-	public int getPieceType() {
-		return pieceType;
-	}
-
-	@Override
-	public int getPieceColour() {
-		return pieceColour;
-	}
-
-	@Override
-	public long generateMove(int from, boolean isWhite, GameState previousGameState) {
+	public static long generateMove(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
 		long position = 1L << from;
 		long possibleMoves = 0L;
-		long attackMask = 0L;
-
 
-		//move into check
-		attackMask = (!isWhite ? BitBoards.whiteAM : BitBoards.blackAM);
+		// empty squares or opponent pieces
+		long targets = AttackTables.kingAttacks(from) & ~(isWhite ? bitBoards.whiteBB : bitBoards.blackBB);
 		
-		for (int move : kingMoves) {
-			// Calculate the new position
-			long newPosition = (position << move) | (position >>> -move);
-
-			int oldRank = Long.numberOfTrailingZeros(position) / 8;
-			int oldFile = Long.numberOfTrailingZeros(position) % 8;
-			int newRank = Long.numberOfTrailingZeros(newPosition) / 8;
-			int newFile = Long.numberOfTrailingZeros(newPosition) % 8;            
-
-			//restrict capturing at edge of board
-			if (Math.abs(newRank - oldRank) <= 1 &  Math.abs(newFile - oldFile) <= 1) {
-				// Create a bit mask for the new square
-				long newSquareMask = 1L << (Long.numberOfTrailingZeros(newPosition));
-
-				if ((newSquareMask & (BitBoards.allBB | attackMask)) == 0 ){
-					//Check if unoccupied and not attacked
-					possibleMoves |= newSquareMask;
-				}
-
-				if ((newSquareMask & attackMask) == 0) {
-					if (isWhite && ((newSquareMask & BitBoards.blackBB) != 0)) {
-						//when white, black can be captured
-						possibleMoves |= newSquareMask;
-
-					} else if (!isWhite && (newSquareMask & BitBoards.whiteBB) != 0){
-						//when black, white can be captured
-						possibleMoves |= newSquareMask;
-					}
-				}
-				//same condition check but as one line
-				//if (((newSquareMask & (allPieces | attackMask)) == 0) || ((newSquareMask & attackMask) == 0 && ((isWhite && (newSquareMask & allBlack) != 0) || (!isWhite && (newSquareMask & allWhite) != 0)))) {
-				//    possibleMoves |= newSquareMask;
-				//}
+		//Remove moving into check, without the king sliders also attack the squares behind it
+		long occupancy = bitBoards.allBB & ~position;
+		while (targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			if (!bitBoards.isSquareAttacked(to, !isWhite, occupancy)) {
+				possibleMoves |= 1L << to;
 			}
+			targets &= targets - 1;
 		}
 		
-		//printMask(possibleMoves);
-		
-		//Remove moving into check on other side.
-		if ((position & attackMask) != 0) {
-			possibleMoves &= BitBoards.checkKingInCheckMove(from, isWhite);
-		}
-		
-		//# Castling
-		long kingPiece = (isWhite ? BitBoards.whiteKingBB : BitBoards.blackKingBB);
+		possibleMoves |= generateCastling(bitBoards, from, isWhite, previousGameState);
+		return possibleMoves;
+	}
+
+	/**
+     * Generates the legal castling moves of a king, the target squares of the king.
+     * Castling needs the right, empty squares between king and rook and no attacked square on the way of the king.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the king.
+     * @param isWhite           Whether the king is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the target squares of the legal castling moves.
+     */
+	public static long generateCastling(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		long kingPiece = 1L << from;
 		long castleBoard = previousGameState.getCastleBoard(isWhite);
 		
 		//check for Castle privilege, have the pieces moved?
@@ -111,7 +73,7 @@ public class King implements PieceI {
 			freeSquare = moveSquare &~ kingPiece;
 			
 
-			if((freeSquare & BitBoards.allBB) != 0 || ((moveSquare & attackMask) != 0)) {
+			if((freeSquare & bitBoards.allBB) != 0 || isAnyAttacked(bitBoards, moveSquare, !isWhite)) {
 				castleBoard &= ~((1L << 6) | (1L <<  62));
 			}
 
@@ -120,12 +82,36 @@ public class King implements PieceI {
 			freeSquare = (moveSquare | (kingPiece >> 3)) &~ kingPiece;
 			
 			
-			if((freeSquare & BitBoards.allBB) != 0 || ((moveSquare & attackMask) != 0)) {
+			if((freeSquare & bitBoards.allBB) != 0 || isAnyAttacked(bitBoards, moveSquare, !isWhite)) {
 				castleBoard &= ~((1L << 2) | (1L <<  58));
 			}
-			possibleMoves |= castleBoard;
 		}
-		return possibleMoves;
+		return castleBoard;
+	}
+
+	/**
+     * Generates only the legal captures of a king on the given square, used by the quiescence search. Castling never captures.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the king.
+     * @param isWhite           Whether the king is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the squares of the captured pieces.
+     */
+	public static long generateCaptures(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		long captures = 0L;
+		long targets = AttackTables.kingAttacks(from) & (isWhite ? bitBoards.blackBB : bitBoards.whiteBB);
+
+		// without the king sliders also attack the squares behind it
+		long occupancy = bitBoards.allBB & ~(1L << from);
+		while (targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			if (!bitBoards.isSquareAttacked(to, !isWhite, occupancy)) {
+				captures |= 1L << to;
+			}
+			targets &= targets - 1;
+		}
+		return captures;
 	}
 
 
@@ -133,46 +119,34 @@ public class King implements PieceI {
      * Generates attacks for the king of the same color on the board.
      * Uses BitBoards to retrieve additional Piece Information and as such is static.
      * 
+     * @param bitBoards The bitboards of the position.
      * @param isWhite Whether the king is white.
      * @return Bitboard representing possible attacks.
      */
-	public static long generateSamePieceAttacks(boolean isWhite) {
-		long possibleMoves = 0L;
-		long newSquareMask = 0L;
-		long from = (isWhite ? BitBoards.whiteKingBB : BitBoards.blackKingBB);
-
-		for (int move : kingMoves) {
-			// Calculate the new position
-			long newPosition = (from << move) | (from >>> -move);
-
-			int oldRank = Long.numberOfTrailingZeros(from) / 8;
-			int oldFile = Long.numberOfTrailingZeros(from) % 8;
-			int newRank = Long.numberOfTrailingZeros(newPosition) / 8;
-			int newFile = Long.numberOfTrailingZeros(newPosition) % 8;  
+	public static long generateSamePieceAttacks(BitBoards bitBoards, boolean isWhite) {
+		long kingBB = (isWhite ? bitBoards.whiteKingBB : bitBoards.blackKingBB);
 
-			//restrict capturing at edge of board
-			if (Math.abs(newRank - oldRank) <= 1 &  Math.abs(newFile - oldFile) <= 1) {
-				// Create a bit mask for the new square
-				newSquareMask = 1L << (Long.numberOfTrailingZeros(newPosition));
-			}
-			possibleMoves |= newSquareMask;
+		if (kingBB == 0) {
+			return 0L;
 		}
-
-		return possibleMoves;
+		return AttackTables.kingAttacks(Long.numberOfTrailingZeros(kingBB));
 	}
 
-
-	@Override
-	public void toggleBB(int square, boolean isWhite){
-		BitBoards.kingsBB ^= 1L << square;
-
-		if (isWhite) {
-			BitBoards.whiteBB ^= 1L << square;
-		} else {
-			BitBoards.blackBB ^= 1L << square;
+	/**
+     * Checks whether any of the given squares is attacked, used for the squares the king passes when castling.
+     *
+     * @param bitBoards The bitboards of the position.
+     * @param squares   Bitboard of the squares to check.
+     * @param byWhite   Whether the attackers are white.
+     * @return True if at least one square is attacked.
+     */
+	private static boolean isAnyAttacked(BitBoards bitBoards, long squares, boolean byWhite) {
+		while (squares != 0) {
+			if (bitBoards.isSquareAttacked(Long.numberOfTrailingZeros(squares), byWhite, bitBoards.allBB)) {
+				return true;
+			}
+			squares &= squares - 1;
 		}
+		return false;
 	}
-
 }
-
-
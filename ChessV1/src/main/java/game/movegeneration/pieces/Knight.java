@@ -1,12 +1,12 @@
 package game.movegeneration.pieces;
 
-import java.util.List;
-
 import game.board.GameState;
+import game.movegeneration.AttackTables;
 import game.movegeneration.BitBoards;
 
 /**
- * The Knight class represents the Knight chess piece and implements the PieceI interface.
+ * The Knight class holds the move generation and attacks of the Knight chess piece.
+ * It only has static methods, a knight on the board is stored as a piece code, see {@link PieceI}.
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.PieceI
@@ -14,144 +14,69 @@ import game.movegeneration.BitBoards;
  * @author Ryu
  * @version 1.0
  */
-public class Knight implements PieceI {
-	private final int pieceType = 2;
-	private final int pieceColour; // 0 for white, 1 for black
-
-	/**
-     * Array representing knight moves for move generation.
-     */
-	private static int[] knightMoves = {-17, -15, -10, -6, 6, 10, 15, 17};
+public final class Knight {
+	private Knight() {
+	}
 
 	/**
-     * Constructor for the Knight class.
+     * Generates the legal moves of a knight on the given square.
      *
-     * @param pieceColour The color of the knight (0 for white, 1 for black).
-     * @param pos         The initial position of the knight.
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the knight.
+     * @param isWhite           Whether the knight is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard representing possible moves.
      */
-	public Knight(int pieceColour, int pos) {
-		this.pieceColour = pieceColour;
+	public static long generateMove(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		long possibleMoves = 0L;
+		bitBoards.updateLegality(isWhite);
 
-		BitBoards.add(pos, pieceType, pieceColour);
-	}
+		// a pinned knight can never move along the pin line
+		if (bitBoards.checkMask != 0 && (bitBoards.pinned & (1L << from)) == 0) {
+			// knight attacks on empty squares or opponent pieces
+			possibleMoves = AttackTables.knightAttacks(from) & ~(isWhite ? bitBoards.whiteBB : bitBoards.blackBB);
 
-	@Override
-	public int getPieceType() {
-		return pieceType;
-	}
-
-	@Override
-	public int getPieceColour() {
-		return pieceColour;
+			//Remove options when king in check
+			possibleMoves &= bitBoards.checkMask;
+		}
+		return possibleMoves;
 	}
 
+	/**
+     * Generates only the legal captures of a knight on the given square, used by the quiescence search.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the knight.
+     * @param isWhite           Whether the knight is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the squares of the captured pieces.
+     */
+	public static long generateCaptures(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		bitBoards.updateLegality(isWhite);
 
-	@Override
-	public long generateMove(int from, boolean isWhite, GameState previousGameState) {
-		long position = 1L << from;
-		long possibleMoves = 0L;
-		if (BitBoards.doubleCheck(isWhite)) {
-			for (int move : knightMoves) {
-				// Calculate the new position
-				long newPosition = (position << move) | (position >>> -move);
-
-				// Check if the new square is unoccupied or occupied by an opponent's piece
-				if ((newPosition & BitBoards.allBB) == 0) {
-					possibleMoves |= newPosition;
-				} else {
-					if ((isWhite && (newPosition & BitBoards.blackBB) != 0) || (!isWhite && (newPosition & BitBoards.whiteBB) != 0)) {
-						possibleMoves |= newPosition;
-					}
-				}
-			}
-			//remove moves that are not within the knights boundaries
-			possibleMoves = possibleMoves & generate5x5SquareMask(position);
-			//Remove options when king in check
-			long checkedMask = BitBoards.singleCheck(isWhite);
-			if (checkedMask != 0) {
-				possibleMoves &= checkedMask;
-			}
-			//Remove options when pinned
-			possibleMoves &= BitBoards.checkOrthogonalPin(from, isWhite);
-			possibleMoves &= BitBoards.checkDiagonalPin(from, isWhite);
-			
+		// a pinned knight can never move along the pin line
+		if ((bitBoards.pinned & (1L << from)) != 0) {
+			return 0L;
 		}
-		return possibleMoves;
+		return AttackTables.knightAttacks(from) & (isWhite ? bitBoards.blackBB : bitBoards.whiteBB) & bitBoards.checkMask;
 	}
 
     /**
      * Generates attacks for the knight of the same color on the board.
      * Uses BitBoards to retrieve additional Piece Information and as such is static.
      * 
+     * @param bitBoards The bitboards of the position.
      * @param isWhite Whether the knight is white.
      * @return Bitboard representing possible attacks.
      */
-	public static long generateSamePieceAttacks(boolean isWhite) {
+	public static long generateSamePieceAttacks(BitBoards bitBoards, boolean isWhite) {
 		long possibleMoves = 0L;
+		long pieceBB = (isWhite ? bitBoards.whiteKnightsBB : bitBoards.blackKnightsBB);
 
-		long pieceBB = (isWhite ? BitBoards.whiteKnightsBB:BitBoards.blackKnightsBB);
-
-		List<Long> individualBBKnight = BitBoards.createIndividualBitboards(pieceBB);
-		// Print the individual bitboards
-		for (long bb : individualBBKnight) {
-			// Knight moves are represented by relative positions
-			for (int move : knightMoves) {
-				// Calculate the new position
-				long newPosition = (bb << move) | (bb >>> -move);
-
-				// Create a bit mask for the new square
-				long newSquareMask = 1L << (Long.numberOfTrailingZeros(newPosition));
-
-				possibleMoves |= newSquareMask;
-
-			}
-			//remove moves that are not within the knights boundaries
-			possibleMoves = possibleMoves & generate5x5SquareMask(bb);
-
+		while (pieceBB != 0) {
+			possibleMoves |= AttackTables.knightAttacks(Long.numberOfTrailingZeros(pieceBB));
+			pieceBB &= pieceBB - 1;
 		}
 		return possibleMoves;
-
-	}
-
-
-	/**
-     * Generates a 5x5 square mask centered around the given position to limit moves within the knight's range.
-     *
-     * @param position The position of the knight.
-     * @return Bitboard representing a 5x5 square mask.
-     */
-	public static long generate5x5SquareMask(long position) {
-		// Create a 5x5 square around the given position
-		long squareMask = 0L;
-
-		// Iterate over rows and columns of the 5x5 square
-		for (int row = -2; row <= 2; row++) {
-			for (int col = -2; col <= 2; col++) {
-				int newRow = Long.numberOfTrailingZeros(position) / 8 + row;
-				int newCol = Long.numberOfTrailingZeros(position) % 8 + col;
-
-				// Check if the new position is within the chessboard boundaries
-				if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-					// Calculate the index of the new position in a flattened 1D representation
-					int newIndex = newRow * 8 + newCol;
-
-					// Set the corresponding bit in the mask
-					squareMask |= 1L << newIndex;
-				}
-			}
-		}
-
-		return squareMask;
-	}
-
-	@Override
-	public void toggleBB(int square, boolean isWhite){
-		BitBoards.knightsBB ^= 1L << square;
-
-		if (isWhite) {
-			BitBoards.whiteBB ^= 1L << square;
-		} else {
-			BitBoards.blackBB ^= 1L << square;
-		}
 	}
 }
@@ -4,7 +4,8 @@ import game.movegeneration.*;
 import game.board.GameState;
 
 /**
- * The Pawn class represents the Pawn chess piece and implements the PieceI interface.
+ * The Pawn class holds the move generation and attacks of the Pawn chess piece.
+ * It only has static methods, a pawn on the board is stored as a piece code, see {@link PieceI}.
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.PieceI
@@ -13,74 +14,60 @@ import game.board.GameState;
  * @version 1.0
  */
 
-public class Pawn implements PieceI {
-	private final int pieceType = 1; // Unique identifier for Pawn
-	private final int pieceColour; // 0 for white, 1 for black
-
-	/**
-	 * Constructor for the Pawn class.
-	 *
-	 * @param pieceColour The color of the pawn (0 for white, 1 for black).
-	 * @param pos         The initial position of the pawn.
-	 */
-	public Pawn(int pieceColour, int pos) {
-		this.pieceColour = pieceColour;
-
-		//construct bitBoard
-		BitBoards.add(pos, pieceType, pieceColour);
-	}
-
-	@Override
-	public int getPieceType() {
-		return pieceType;
-	}
-
-	@Override
-	public int getPieceColour() {
-		return pieceColour;
+public final class Pawn {
+	private Pawn() {
 	}
 
-
-	@Override
-	public long generateMove(int from, boolean isWhite, GameState previousGameState) {
+	/**
+     * Generates the legal moves of a pawn on the given square.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the pawn.
+     * @param isWhite           Whether the pawn is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard representing possible moves.
+     */
+	public static long generateMove(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
 		long possibleMoves = 0L;
 		long bitboard = 1L << from;
-		long caps = pawnAttacks(bitboard, isWhite);
+		long caps = AttackTables.pawnAttacks(from, isWhite);
+		bitBoards.updateLegality(isWhite);
 
-		if (BitBoards.doubleCheck(isWhite)) {
+		if (bitBoards.checkMask != 0) {
+			long checkMask = bitBoards.checkMask;
 			// Calculate possible moves for a pawn
 			if (isWhite) {
 				// White pawn moves	
 				long singleMove = bitboard << 8;
-				if ((singleMove & BitBoards.allBB) == 0) {
+				if ((singleMove & bitBoards.allBB) == 0) {
 					possibleMoves |= singleMove;
 
-					//double Move if not blocked and rank2
-					if ((bitboard & rank2) != 0) {
+					//double Move if not blocked and PieceI.rank2
+					if ((bitboard & PieceI.rank2) != 0) {
 						long doubleMove = bitboard << 16;
-						if ((doubleMove & BitBoards.allBB) == 0) {
+						if ((doubleMove & bitBoards.allBB) == 0) {
 							possibleMoves |= doubleMove;
 						}
 					}
 				}
 				//diagonal captures
-				possibleMoves |= (caps & BitBoards.blackBB);
+				possibleMoves |= (caps & bitBoards.blackBB);
 			} else {
 				//Black Pawn moves
 				long singleMove = bitboard >> 8;
-				if ((singleMove & BitBoards.allBB) == 0) {
+				if ((singleMove & bitBoards.allBB) == 0) {
 					possibleMoves |= singleMove;
 
-					//double Move if not blocked and rank7
-					if ((bitboard & rank7) != 0) {
+					//double Move if not blocked and PieceI.rank7
+					if ((bitboard & PieceI.rank7) != 0) {
 						long doubleMove = bitboard >> 16;
-						if ((doubleMove & BitBoards.allBB) == 0) {
+						if ((doubleMove & bitBoards.allBB) == 0) {
 							possibleMoves |= doubleMove;
 						}
 					}
 				}
 				//diagonal captures
-				possibleMoves |= (caps & BitBoards.whiteBB);
+				possibleMoves |= (caps & bitBoards.whiteBB);
 			}
 
 			// include enPassant captures,
@@ -93,76 +80,77 @@ public class Pawn implements PieceI {
 			vertical &= (rank3 | rank6);
 			if((vertical & caps) != 0) {
 				//Remove en passant capture when that would result in a check
-				if (BitBoards.checkEnPassantPin(from, isWhite, previousGameState.getEnPassantFile())) {					
-					long pawn = (isWhite ? BitBoards.whitePawnsBB: BitBoards.blackPawnsBB);
+				if (bitBoards.checkEnPassantPin(from, isWhite, previousGameState.getEnPassantFile())) {					
+					long pawn = (isWhite ? bitBoards.whitePawnsBB: bitBoards.blackPawnsBB);
 					//exclude white caps to rank 3 and black to 6 when EP					
 					if ((bitboard & pawn & rank6 >> 8) != 0) {
 						possibleMoves |= (vertical & caps & ~rank3);
 					} else if ((bitboard & pawn & rank3 << 8) != 0) {
 						possibleMoves |= (vertical & caps & ~rank6);
 					}
+					//capturing the checking pawn en passant resolves the check although the pawn lands elsewhere
+					long capturedPawn = 1L << (previousGameState.getEnPassantFile() + (isWhite ? 32 : 24));
+					if ((bitBoards.checkers & capturedPawn) != 0) {
+						checkMask |= vertical & caps;
+					}
 				}
 			}
-			//Remove options when king in check
-			long checkedMask = BitBoards.singleCheck(isWhite);
-			if (checkedMask != 0) {
-				possibleMoves &= checkedMask;
-			}
-			//Remove options when pinned
-			possibleMoves &= BitBoards.checkOrthogonalPin(from, isWhite);
-			possibleMoves &= BitBoards.checkDiagonalPin(from, isWhite);
-
-
+			//Remove options when king in check or pinned
+			possibleMoves &= checkMask & bitBoards.pinRay(from, isWhite);
 		}
 
 		return possibleMoves;
 
 	}
 
+	/**
+     * Generates only the legal captures of a pawn on the given square, used by the quiescence search.
+     * Includes en passant and captures that promote, the en passant target square stands for the captured pawn.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the pawn.
+     * @param isWhite           Whether the pawn is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the squares of the captured pieces.
+     */
+	public static long generateCaptures(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		bitBoards.updateLegality(isWhite);
+		long caps = AttackTables.pawnAttacks(from, isWhite);
+		long captures = caps & (isWhite ? bitBoards.blackBB : bitBoards.whiteBB);
+		long checkMask = bitBoards.checkMask;
+
+		int epFile = previousGameState.getEnPassantFile();
+		if (epFile >= 0) {
+			long epTarget = 1L << (epFile + (isWhite ? 40 : 16));
+			if ((caps & epTarget) != 0 && bitBoards.checkEnPassantPin(from, isWhite, epFile)) {
+				captures |= epTarget;
+				//capturing the checking pawn en passant resolves the check although the pawn lands elsewhere
+				if ((bitBoards.checkers & (1L << (epFile + (isWhite ? 32 : 24)))) != 0) {
+					checkMask |= epTarget;
+				}
+			}
+		}
+		return captures & checkMask & bitBoards.pinRay(from, isWhite);
+	}
+
 
 
 	/**
 	 * Generates attacks for the pawn of the same color on the board.
 	 * Uses BitBoards to retrieve additional Piece Information and as such is static
 	 *
+	 * @param bitBoards The bitboards of the position.
 	 * @param isWhite Whether the pawn is white.
 	 * @return Bitboard representing possible attacks.
 	 */
-	public static long generateSamePieceAttacks(boolean isWhite) {
+	public static long generateSamePieceAttacks(BitBoards bitBoards, boolean isWhite) {
 		long pawnAttacks = 0L;
 		if (isWhite) {
-			pawnAttacks = ((BitBoards.whitePawnsBB << 9) & notAFile) | ((BitBoards.whitePawnsBB << 7) & notHFile);
+			pawnAttacks = ((bitBoards.whitePawnsBB << 9) & PieceI.notAFile) | ((bitBoards.whitePawnsBB << 7) & PieceI.notHFile);
 			return pawnAttacks;
 		} else {
-			pawnAttacks = ((BitBoards.blackPawnsBB >> 7) & notAFile) | ((BitBoards.blackPawnsBB >> 9) & notHFile);
+			pawnAttacks = ((bitBoards.blackPawnsBB >> 7) & PieceI.notAFile) | ((bitBoards.blackPawnsBB >> 9) & PieceI.notHFile);
 			return pawnAttacks;
 		}
 	}
-
-	//Helper Methods
-	@Override
-	public void toggleBB(int square, boolean isWhite){
-		BitBoards.pawnsBB ^= 1L << square;
-
-		if (isWhite) {
-			BitBoards.whiteBB ^= 1L << square;
-		} else {
-			BitBoards.blackBB ^= 1L << square;
-		}
-	}
-
-	/**
-	 * Helper method to calculate pawn attacks.
-	 *
-	 * @param pawnBitboard The bitboard representing the pawn.
-	 * @param isWhite      Whether the pawn is white.
-	 * @return Bitboard representing pawn attacks.
-	 */
-	private static long pawnAttacks(long pawnBitboard, boolean isWhite) {
-		if (isWhite) {
-			return ((pawnBitboard << 9) & notAFile) | ((pawnBitboard << 7) & notHFile);
-		} else {
-			return ((pawnBitboard >> 7) & notAFile) | ((pawnBitboard >> 9) & notHFile);
-		}
-	}
 }
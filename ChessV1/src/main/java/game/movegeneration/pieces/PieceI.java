@@ -1,9 +1,17 @@
 package game.movegeneration.pieces;
 
 import game.board.GameState;
+import game.movegeneration.BitBoards;
 
 /**
- * The PieceI interface represents a chess piece and provides methods for interacting with it.
+ * The PieceI interface bundles the piece codes of the mailbox board and dispatches to the move generation of the pieces.
+ * 
+ * <p>
+ * A piece is stored as a single number: 0 for an empty square, otherwise pieceType + 6 * pieceColour,
+ * i.e. 1-6 for the white pawn to king and 7-12 for the black pawn to king.
+ * The behaviour of every piece type is kept in static methods of the piece classes and selected with a switch on the type,
+ * so that no piece objects are created while playing or searching.
+ * </p>
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.Pawn
@@ -31,106 +39,170 @@ public interface PieceI {
 	static final long Rank8 = rank7 << 8;
 
 	/**
-     * Returns a unique identifier for each piece type.
+	 * Piece code of an empty square.
+	 */
+	static final int empty = 0;
+
+	/**
+     * Creates the piece code for a piece type and colour.
+     *
+     * @param pieceType    The type of the piece, 1 for pawn, 2 for knight, 3 for bishop, 4 for rook, 5 for queen, 6 for king.
+     * @param pieceColour  The color of the piece (0 for white, 1 for black).
+     * @return The piece code (1-12).
+     */
+	static int pieceCode(int pieceType, int pieceColour) {
+		return pieceType + 6 * pieceColour;
+	}
+
+	/**
+     * Returns the type of a piece code.
      * 0 for empty, 1 for pawn, 2 for knight, 3 for bishop, 4 for rook, 5 for queen, 6 for king
      *
+     * @param piece The piece code.
      * @return The piece type identifier.
      */
-	int getPieceType();
+	static int getPieceType(int piece) {
+		return piece > 6 ? piece - 6 : piece;
+	}
+
 	/**
-     * Returns the color of the piece (e.g., 0 for white, 1 for black).
+     * Returns the color of a piece code (0 for white, 1 for black).
      *
+     * @param piece The piece code, must not be empty.
      * @return The piece color.
      */
-	int getPieceColour(); 
-	
+	static int getPieceColour(int piece) {
+		return piece > 6 ? 1 : 0;
+	}
+
 	/**
-    * returns true when the selected piece is white.
+    * returns true when the piece is white.
     *
+    * @param piece The piece code, must not be empty.
     * @return true if white.
     */
-	default boolean isWhite() {	
-		return getPieceColour() == 0; 
+	static boolean isWhite(int piece) {	
+		return piece <= 6; 
 	}
-	
-	
+
 	/**
      * Generates legal moves for the piece from the given position.
      *
+     * @param bitBoards         The bitboards of the position.
+     * @param piece             The piece code of the piece on the from square.
      * @param from              The starting position of the piece.
-     * @param isWhite           Whether the piece is white.
      * @param previousGameState The previous game state for move generation.
      * @return A bitboard representing possible moves.
      */
-	long generateMove(int from, boolean isWhite, GameState previousGameState);
-
-	//BB to see which squares are defended, and attacked. - Attack Mask
-	//implemented in every Class as to calc
-	//public static long generateSamePieceAttacks(boolean isWhite);
-
-	 /**
-     * Toggles the bitboard for the given square based on the piece color.
-     *
-     * @param from    The square to toggle.
-     * @param isWhite Whether the piece is white.
-     */
-	void toggleBB(int from, boolean isWhite); //basically remove or add.
+	static long generateMove(BitBoards bitBoards, int piece, int from, GameState previousGameState) {
+		boolean isWhite = isWhite(piece);
 
+		switch (getPieceType(piece)) {
+		case 1:
+			return Pawn.generateMove(bitBoards, from, isWhite, previousGameState);
+		case 2:
+			return Knight.generateMove(bitBoards, from, isWhite, previousGameState);
+		case 3:
+			return Bishop.generateMove(bitBoards, from, isWhite, previousGameState);
+		case 4:
+			return Rook.generateMove(bitBoards, from, isWhite, previousGameState);
+		case 5:
+			return Queen.generateMove(bitBoards, from, isWhite, previousGameState);
+		case 6:
+			return King.generateMove(bitBoards, from, isWhite, previousGameState);
+		default:
+			return 0L;
+		}
+	}
 
 	/**
-     * Checks if a move from one square to another is valid for the piece.
+     * Generates only the legal captures of the piece from the given position, including en passant.
      *
-     * @param from              The starting square.
-     * @param to                The target square.
-     * @param previousGameState The previous game state for move validation.
-     * @return True if the move is valid, false otherwise.
+     * @param bitBoards         The bitboards of the position.
+     * @param piece             The piece code of the piece on the from square.
+     * @param from              The starting position of the piece.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the capturing target squares, for en passant the target square of the pawn.
      */
-	default boolean isValidMove(int from, int to, GameState previousGameState) {
-		long mask = 1L << to;
+	static long generateCaptures(BitBoards bitBoards, int piece, int from, GameState previousGameState) {
+		boolean isWhite = isWhite(piece);
 
-		if ((mask & generateMove(from, getPieceColour() == 0, previousGameState)) != 0) {
-			return true;
-		} else {
-			return false;
+		switch (getPieceType(piece)) {
+		case 1:
+			return Pawn.generateCaptures(bitBoards, from, isWhite, previousGameState);
+		case 2:
+			return Knight.generateCaptures(bitBoards, from, isWhite, previousGameState);
+		case 3:
+			return Bishop.generateCaptures(bitBoards, from, isWhite, previousGameState);
+		case 4:
+			return Rook.generateCaptures(bitBoards, from, isWhite, previousGameState);
+		case 5:
+			return Queen.generateCaptures(bitBoards, from, isWhite, previousGameState);
+		case 6:
+			return King.generateCaptures(bitBoards, from, isWhite, previousGameState);
+		default:
+			return 0L;
 		}
 	}
-	
-	/**
-     * Adds a piece to the square-centric board and bitboards based on the provided values.
+
+	 /**
+     * Toggles the bitboards of the piece on the given square, basically remove or add.
      *
-     * @param pos          The position to add the piece.
-     * @param pieceType    The type of the piece.
-     * @param pieceColour  The color of the piece.
-     * @return The newly created chess piece.
+     * @param bitBoards The bitboards of the position.
+     * @param piece     The piece code.
+     * @param square    The square to toggle.
      */
-	static PieceI addPiece(int pos, int pieceType, int pieceColour) {
+	static void toggleBB(BitBoards bitBoards, int piece, int square) {
+		long mask = 1L << square;
 
-		PieceI newPiece;
-
-		// Create a new chess piece based on the provided values
-		switch (pieceType) {
+		switch (getPieceType(piece)) {
 		case 1:
-			newPiece = new Pawn(pieceColour, pos);
+			bitBoards.pawnsBB ^= mask;
 			break;
 		case 2:
-			newPiece = new Knight(pieceColour, pos);
+			bitBoards.knightsBB ^= mask;
 			break;
 		case 3:
-			newPiece = new Bishop(pieceColour, pos);
+			bitBoards.bishopsBB ^= mask;
 			break;
 		case 4:
-			newPiece = new Rook(pieceColour, pos);
+			bitBoards.rooksBB ^= mask;
 			break;
 		case 5:
-			newPiece = new Queen(pieceColour, pos);
+			bitBoards.queensBB ^= mask;
 			break;
 		case 6:
-			newPiece = new King(pieceColour, pos);
+			bitBoards.kingsBB ^= mask;
 			break;
 		default:
-			newPiece = new Pawn(pieceColour, pos);
+			break;
+		}
+
+		if (isWhite(piece)) {
+			bitBoards.whiteBB ^= mask;
+		} else {
+			bitBoards.blackBB ^= mask;
+		}
+	}
+
+	/**
+     * Checks if a move from one square to another is valid for the piece.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param piece             The piece code of the piece on the from square.
+     * @param from              The starting square.
+     * @param to                The target square.
+     * @param previousGameState The previous game state for move validation.
+     * @return True if the move is valid, false otherwise.
+     */
+	static boolean isValidMove(BitBoards bitBoards, int piece, int from, int to, GameState previousGameState) {
+		long mask = 1L << to;
+
+		if ((mask & generateMove(bitBoards, piece, from, previousGameState)) != 0) {
+			return true;
+		} else {
+			return false;
 		}
-		return newPiece;
 	}
 
 	// ########################### Debugging
@@ -140,7 +212,7 @@ public interface PieceI {
      *
      * @param bits The bitboard mask to print.
      */
-	default void printMask(long bits) {
+	static void printMask(long bits) {
 		for (int rank = 7; rank >= 0; rank--) {
 			for (int file = 0; file < 8; file++) {
 				int square = rank * 8 + file;
@@ -157,7 +229,4 @@ public interface PieceI {
 		System.out.println();
 	}
 
-
-	
-
-}
\ No newline at end of file
+}
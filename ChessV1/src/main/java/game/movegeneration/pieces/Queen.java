@@ -1,12 +1,12 @@
 package game.movegeneration.pieces;
 
-import java.util.List;
-
 import game.board.GameState;
 import game.movegeneration.BitBoards;
+import game.movegeneration.MagicBitBoards;
 
 /**
- * The Queen class represents the Queen chess piece and implements the PieceI interface.
+ * The Queen class holds the move generation and attacks of the Queen chess piece.
+ * It only has static methods, a queen on the board is stored as a piece code, see {@link PieceI}.
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.PieceI
@@ -14,89 +14,68 @@ import game.movegeneration.BitBoards;
  * @author Ryu
  * @version 1.0
  */
-public class Queen implements PieceI {
-	private final int pieceType = 5;
-	private final int pieceColour; // 0 for white, 1 for black
-
-	/**
-	 * Constructor for the Queen class.
-	 *
-	 * @param pieceColour The color of the queen (0 for white, 1 for black).
-	 * @param pos         The initial position of the queen.
-	 */
-	public Queen(int pieceColour, int pos) {
-		this.pieceColour = pieceColour;
-
-		BitBoards.add(pos, pieceType, pieceColour);
+public final class Queen {
+	private Queen() {
 	}
 
-	@Override
-	public int getPieceType() {
-		return pieceType;
-	}
-
-	@Override
-	public int getPieceColour() {
-		return pieceColour;
-	}
-
-	@Override
-	public long generateMove(int from, boolean isWhite, GameState previousGameState) {
+	/**
+     * Generates the legal moves of a queen on the given square.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the queen.
+     * @param isWhite           Whether the queen is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard representing possible moves.
+     */
+	public static long generateMove(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
 		long position = 1L << from;
 		long possibleMoves = 0L;
 
-		if (BitBoards.doubleCheck(isWhite)) {
+		bitBoards.updateLegality(isWhite);
+
+		if (bitBoards.checkMask != 0) {
 			
-			possibleMoves |= BitBoards.generateDiagonalSlider(position, isWhite, possibleMoves, false);
-			possibleMoves |= BitBoards.generateOrthogonalSlider(position, isWhite, possibleMoves, false);
+			possibleMoves |= bitBoards.generateDiagonalSlider(position, isWhite, possibleMoves, false);
+			possibleMoves |= bitBoards.generateOrthogonalSlider(position, isWhite, possibleMoves, false);
 			
-			//Remove options when king in check
-			long checkedMask = BitBoards.singleCheck(isWhite);
-			if (checkedMask != 0) {
-				possibleMoves &= checkedMask;
-			}
-			//Remove options when pinned
-			possibleMoves &= BitBoards.checkOrthogonalPin(from, isWhite);
-			possibleMoves &= BitBoards.checkDiagonalPin(from, isWhite);
-
+			//Remove options when king in check or pinned
+			possibleMoves &= bitBoards.checkMask & bitBoards.pinRay(from, isWhite);
 		}
 		return possibleMoves;
 	}
 
+	/**
+     * Generates only the legal captures of a queen on the given square, used by the quiescence search.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the queen.
+     * @param isWhite           Whether the queen is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the squares of the captured pieces.
+     */
+	public static long generateCaptures(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		bitBoards.updateLegality(isWhite);
+
+		return MagicBitBoards.queenAttacks(from, bitBoards.allBB) & (isWhite ? bitBoards.blackBB : bitBoards.whiteBB)
+				& bitBoards.checkMask & bitBoards.pinRay(from, isWhite);
+	}
+
 	/**
 	 * Generates attacks for the queen of the same color on the board.
 	 * Uses BitBoards to retrieve additional Piece Information and as such is static
 	 *
+	 * @param bitBoards The bitboards of the position.
 	 * @param isWhite Whether the queen is white.
 	 * @return Bitboard representing possible attacks.
 	 */
-	public static long generateSamePieceAttacks(boolean isWhite) {
+	public static long generateSamePieceAttacks(BitBoards bitBoards, boolean isWhite) {
 		long possibleMoves = 0L;
+		long pieceBB = (isWhite ? bitBoards.whiteQueensBB : bitBoards.blackQueensBB);
 
-		long pieceBB = (isWhite ? BitBoards.whiteQueensBB:BitBoards.blackQueensBB);
-
-		
-		List<Long> individualBBQueen = BitBoards.createIndividualBitboards(pieceBB);
-		// Print the individual bitboards
-		for (long bb : individualBBQueen) {
-			possibleMoves |= BitBoards.generateDiagonalSlider(bb, isWhite, possibleMoves, true);
-			possibleMoves |= BitBoards.generateOrthogonalSlider(bb, isWhite, possibleMoves, true);
-			
+		while (pieceBB != 0) {
+			possibleMoves |= MagicBitBoards.queenAttacks(Long.numberOfTrailingZeros(pieceBB), bitBoards.allBB);
+			pieceBB &= pieceBB - 1;
 		}
-		
 		return possibleMoves;
-
-	}
-
-	@Override
-	public void toggleBB(int square, boolean isWhite){
-		BitBoards.queensBB ^= 1L << square;
-
-		if (isWhite) {
-			BitBoards.whiteBB ^= 1L << square;
-		} else {
-			BitBoards.blackBB ^= 1L << square;
-		}
 	}
-
 }
@@ -1,12 +1,12 @@
 package game.movegeneration.pieces;
 
-import java.util.List;
-
 import game.board.GameState;
 import game.movegeneration.BitBoards;
+import game.movegeneration.MagicBitBoards;
 
 /**
- * The Rook class represents the Rook chess piece and implements the PieceI interface.
+ * The Rook class holds the move generation and attacks of the Rook chess piece.
+ * It only has static methods, a rook on the board is stored as a piece code, see {@link PieceI}.
  * 
  * @see game.movegeneration.BitBoards
  * @see game.movegeneration.pieces.PieceI
@@ -14,84 +14,66 @@ import game.movegeneration.BitBoards;
  * @author Ryu
  * @version 1.0
  */
-public class Rook implements PieceI {
-
-	private final int pieceType = 4;
-	private final int pieceColour; // 0 for white, 1 for black
-
-	/**
-	 * Constructor for the Rook class.
-	 *
-	 * @param pieceColour The color of the rook (0 for white, 1 for black).
-	 * @param pos         The initial position of the rook.
-	 */
-	public Rook(int pieceColour, int pos) {
-		this.pieceColour = pieceColour;
-
-		BitBoards.add(pos, pieceType, pieceColour);
+public final class Rook {
+	private Rook() {
 	}
 
-	@Override
-	public int getPieceType() {
-		return pieceType;
-	}
-
-	@Override
-	public int getPieceColour() {
-		return pieceColour;
-	}
-
-	@Override
-	public long generateMove(int from, boolean isWhite, GameState previousGameState) {
+	/**
+     * Generates the legal moves of a rook on the given square.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the rook.
+     * @param isWhite           Whether the rook is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard representing possible moves.
+     */
+	public static long generateMove(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
 		long position = 1L << from;
 		long possibleMoves = 0L;
-		if (BitBoards.doubleCheck(isWhite)) {
-			//generate Orthogonal Slider
-			possibleMoves |= BitBoards.generateOrthogonalSlider(position, isWhite, possibleMoves, false);
+		bitBoards.updateLegality(isWhite);
 
-			//Remove options when pinned
-			possibleMoves &= BitBoards.checkOrthogonalPin(from, isWhite);
-			possibleMoves &= BitBoards.checkDiagonalPin(from, isWhite);
-
-
-			//Remove options when king in check
-			long checkedMask = BitBoards.singleCheck(isWhite);
-			if (checkedMask != 0) {
-				possibleMoves &= checkedMask;
-			}
+		if (bitBoards.checkMask != 0) {
+			//generate Orthogonal Slider
+			possibleMoves |= bitBoards.generateOrthogonalSlider(position, isWhite, possibleMoves, false);
 
+			//Remove options when king in check or pinned
+			possibleMoves &= bitBoards.checkMask & bitBoards.pinRay(from, isWhite);
 		}
 		return possibleMoves;
 	}
 
+	/**
+     * Generates only the legal captures of a rook on the given square, used by the quiescence search.
+     *
+     * @param bitBoards         The bitboards of the position.
+     * @param from              The square of the rook.
+     * @param isWhite           Whether the rook is white.
+     * @param previousGameState The previous game state for move generation.
+     * @return A bitboard of the squares of the captured pieces.
+     */
+	public static long generateCaptures(BitBoards bitBoards, int from, boolean isWhite, GameState previousGameState) {
+		bitBoards.updateLegality(isWhite);
+
+		return MagicBitBoards.rookAttacks(from, bitBoards.allBB) & (isWhite ? bitBoards.blackBB : bitBoards.whiteBB)
+				& bitBoards.checkMask & bitBoards.pinRay(from, isWhite);
+	}
+
 	/**
 	 * Generates attackMask for the rook of the same color on the board.
 	 * Uses BitBoards to retrieve additional Piece Information and as such is static.
 	 * 
+	 * @param bitBoards The bitboards of the position.
 	 * @param isWhite Whether the rook is white.
 	 * @return Bitboard representing possible attacks.
 	 */
-	public static long generateSamePieceAttacks(boolean isWhite) {
+	public static long generateSamePieceAttacks(BitBoards bitBoards, boolean isWhite) {
 		long possibleMoves = 0L;
-		long pieceBB = (isWhite ? BitBoards.whiteRooksBB : BitBoards.blackRooksBB);
+		long pieceBB = (isWhite ? bitBoards.whiteRooksBB : bitBoards.blackRooksBB);
 
-		List<Long> individualBBRook = BitBoards.createIndividualBitboards(pieceBB);
-		// Print the individual bitboards
-		for (long bb : individualBBRook) {
-			possibleMoves |= BitBoards.generateOrthogonalSlider(bb, isWhite, possibleMoves, true);
+		while (pieceBB != 0) {
+			possibleMoves |= MagicBitBoards.rookAttacks(Long.numberOfTrailingZeros(pieceBB), bitBoards.allBB);
+			pieceBB &= pieceBB - 1;
 		}
 		return possibleMoves;
-
-	}
-
-	@Override
-	public void toggleBB(int square, boolean isWhite){
-		BitBoards.rooksBB ^= 1L << square;
-
-		if (isWhite) {
-			BitBoards.whiteBB ^= 1L << square;
-		} else {
-			BitBoards.blackBB ^= 1L << square;
-		}
 	}
 }
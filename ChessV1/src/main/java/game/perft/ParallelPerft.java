@@ -0,0 +1,189 @@
+package game.perft;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import game.board.Board;
+import game.board.Position;
+import game.movegeneration.MoveGenerator;
+import game.search.Move;
+import game.search.MoveOrdering;
+
+/**
+ * Counts the leaf nodes of the legal move tree on several cores with a {@link ForkJoinPool}.
+ *
+ * <p>
+ * The tree is split into one task per root move and, with a split depth of 2, per move of the second ply.
+ * A task carries an immutable {@link Position} snapshot instead of a board, every worker thread loads it into a board of its own
+ * and counts the subtree with a single-threaded {@link Perft}, so no board is ever shared between threads.
+ * The move generation keeps no static mutable state, the lookup tables are only read.
+ * The counts of the subtasks are summed when they are joined.
+ * </p>
+ * <p>
+ * With a {@link PerftTable} all workers share one cache, a subtree counted by one thread is looked up by the others.
+ * </p>
+ * <p>
+ * A split task only uses its board before the subtasks are forked, a worker that runs other tasks while it waits for the join
+ * may load other positions into the board of its thread.
+ * </p>
+ *
+ * @see game.perft.Perft
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class ParallelPerft {
+	/**
+	 * Splits the root moves and the second ply, a few thousand tasks in middlegame positions, enough to balance the load.
+	 */
+	public static final int defaultSplitDepth = 2;
+
+	private final Board board;
+	private final ForkJoinPool pool;
+	private final int splitDepth;
+	/**
+	 * The board and perft of every worker thread.
+	 */
+	private final ThreadLocal<Perft> workers;
+
+	/**
+	 * Creates a parallel perft on a board that splits the first {@link #defaultSplitDepth} plies.
+	 *
+	 * @param board   The board to count the moves of, it is only read.
+	 * @param threads The number of worker threads.
+	 */
+	public ParallelPerft(Board board, int threads) {
+		this(board, threads, defaultSplitDepth, null);
+	}
+
+	/**
+	 * Creates a parallel perft on a board.
+	 *
+	 * @param board      The board to count the moves of, it is only read.
+	 * @param threads    The number of worker threads.
+	 * @param splitDepth The number of plies that are split into tasks, 1 for the root moves only.
+	 * @param table      The cache of node counts shared by all threads, or null to count every subtree.
+	 */
+	public ParallelPerft(Board board, int threads, int splitDepth, PerftTable table) {
+		this.board = board;
+		this.pool = new ForkJoinPool(threads);
+		this.splitDepth = splitDepth;
+		// the worker boards are created from a snapshot, the position is replaced by every task anyway
+		Position initialPosition = board.toPosition();
+		this.workers = ThreadLocal.withInitial(() -> new Perft(new Board(initialPosition), table));
+	}
+
+	/**
+	 * Counts the leaf nodes of the current position of the board.
+	 *
+	 * @param depth The depth in plies.
+	 * @return The number of leaf nodes, 1 for depth 0.
+	 * @throws IllegalArgumentException If the depth is negative.
+	 */
+	public long perft(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("perft depth must be at least 0: " + depth);
+		}
+		return pool.invoke(new PerftTask(workers, board.toPosition(), depth, splitDepth));
+	}
+
+	/**
+	 * Counts the leaf nodes below every root move in parallel and prints them in move order, followed by the total.
+	 *
+	 * @param depth The depth in plies, at least 1.
+	 * @param out   The stream the counts are printed to.
+	 * @return The total number of leaf nodes.
+	 * @throws IllegalArgumentException If the depth is less than 1.
+	 */
+	public long divide(int depth, PrintStream out) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("divide depth must be at least 1: " + depth);
+		}
+		// the root moves are played on a copy, so the board of the caller is only read
+		Board rootBoard = new Board(board.toPosition());
+		int[] rootMoves = new int[MoveOrdering.maxMoveCount];
+		int count = MoveGenerator.generateMoves(rootBoard, rootMoves);
+		PerftTask[] tasks = new PerftTask[count];
+
+		for (int i = 0; i < count; i++) {
+			rootBoard.makeMove(rootMoves[i]);
+			tasks[i] = new PerftTask(workers, rootBoard.toPosition(), depth - 1, splitDepth - 1);
+			rootBoard.unmakeMove(rootMoves[i]);
+			pool.execute(tasks[i]);
+		}
+
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			long moveNodes = tasks[i].join();
+			out.println(Move.getName(rootMoves[i]) + ": " + moveNodes);
+			nodes += moveNodes;
+		}
+		out.println();
+		out.println("Nodes searched: " + nodes);
+		return nodes;
+	}
+
+	/**
+	 * Stops the worker threads once the running counts are done.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Counts the subtree of one position, either directly or split into one subtask per move.
+	 */
+	private static class PerftTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+
+		private final ThreadLocal<Perft> workers;
+		private final Position position;
+		private final int depth;
+		private final int splitDepth;
+
+		/**
+		 * Creates a task.
+		 *
+		 * @param workers    The perft of every worker thread.
+		 * @param position   The position of the subtree.
+		 * @param depth      The remaining depth.
+		 * @param splitDepth The number of plies that are still split into tasks.
+		 */
+		PerftTask(ThreadLocal<Perft> workers, Position position, int depth, int splitDepth) {
+			this.workers = workers;
+			this.position = position;
+			this.depth = depth;
+			this.splitDepth = splitDepth;
+		}
+
+		@Override
+		protected Long compute() {
+			Perft perft = workers.get();
+			Board board = perft.getBoard();
+			board.loadPosition(position);
+
+			// the last plies are not worth a task, the bulk count of the leaves is cheaper than forking
+			if (splitDepth <= 0 || depth <= 2) {
+				return perft.perft(depth);
+			}
+
+			int[] moves = new int[MoveOrdering.maxMoveCount];
+			int count = MoveGenerator.generateMoves(board, moves);
+			PerftTask[] subtasks = new PerftTask[count];
+			for (int i = 0; i < count; i++) {
+				board.makeMove(moves[i]);
+				subtasks[i] = new PerftTask(workers, board.toPosition(), depth - 1, splitDepth - 1);
+				board.unmakeMove(moves[i]);
+			}
+			// the board of this thread is not used any more, joining may run other tasks on it
+			invokeAll(subtasks);
+
+			long nodes = 0;
+			for (PerftTask subtask : subtasks) {
+				nodes += subtask.join();
+			}
+			return nodes;
+		}
+	}
+}
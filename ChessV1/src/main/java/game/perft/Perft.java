@@ -0,0 +1,179 @@
+package game.perft;
+
+import java.io.PrintStream;
+
+import game.board.Board;
+import game.movegeneration.MoveCounter;
+import game.movegeneration.MoveGenerator;
+import game.movegeneration.MoveList;
+import game.search.Move;
+import game.search.MoveOrdering;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position to a fixed depth (perft).
+ *
+ * <p>
+ * The counts are compared against known results to verify the move generation, e.g. of the pin and check logic in
+ * {@link game.movegeneration.BitBoards}, and the number of nodes per second measures its speed.
+ * The moves of the last ply are never made: they are counted in bulk with a {@link MoveCounter}.
+ * The inner plies reuse one move list each, so no memory is allocated while counting.
+ * </p>
+ * <p>
+ * With a {@link PerftTable} the count of every inner node is cached by its Zobrist key and depth,
+ * a subtree that is reached again through another move order is looked up instead of counted.
+ * The table can be shared by several perfts, e.g. the threads of a {@link ParallelPerft}.
+ * </p>
+ * <p>
+ * {@link #divide(int, PrintStream)} prints the node count below every root move,
+ * comparing it with the output of another engine narrows a wrong count down to a single move.
+ * </p>
+ *
+ * @see game.perft.PerftSuite
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class Perft {
+	private final Board board;
+	private final MoveCounter moveCounter = new MoveCounter();
+	/**
+	 * The cache of inner node counts, null to count every subtree.
+	 */
+	private final PerftTable table;
+	private MoveList[] moveLists = new MoveList[0];
+
+	/**
+	 * Creates a perft on a board, the board is left in its position after every count.
+	 *
+	 * @param board The board to count the moves of.
+	 */
+	public Perft(Board board) {
+		this(board, null);
+	}
+
+	/**
+	 * Creates a perft on a board that caches the counts of inner nodes.
+	 *
+	 * @param board The board to count the moves of.
+	 * @param table The cache of node counts, or null to count every subtree.
+	 */
+	public Perft(Board board, PerftTable table) {
+		this.board = board;
+		this.table = table;
+	}
+
+	/**
+	 * Gets the board the moves are counted on.
+	 *
+	 * @return The board.
+	 */
+	public Board getBoard() {
+		return board;
+	}
+
+	/**
+	 * Counts the leaf nodes of the current position.
+	 *
+	 * @param depth The depth in plies.
+	 * @return The number of leaf nodes, 1 for depth 0.
+	 * @throws IllegalArgumentException If the depth is negative.
+	 */
+	public long perft(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("perft depth must be at least 0: " + depth);
+		}
+		if (depth == 0) {
+			return 1;
+		}
+		allocateMoveLists(depth);
+		return count(depth, 0);
+	}
+
+	/**
+	 * Counts the leaf nodes below every root move and prints them, followed by the total.
+	 *
+	 * @param depth The depth in plies, at least 1.
+	 * @param out   The stream the counts are printed to.
+	 * @return The total number of leaf nodes.
+	 * @throws IllegalArgumentException If the depth is less than 1.
+	 */
+	public long divide(int depth, PrintStream out) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("divide depth must be at least 1: " + depth);
+		}
+		allocateMoveLists(depth);
+		MoveList rootMoves = moveLists[0];
+		rootMoves.clear();
+		MoveGenerator.generateAll(board, rootMoves);
+
+		long nodes = 0;
+		for (int i = 0; i < rootMoves.count; i++) {
+			int move = rootMoves.moves[i];
+			board.makeMove(move);
+			long moveNodes = (depth == 1 ? 1 : count(depth - 1, 1));
+			board.unmakeMove(move);
+
+			out.println(Move.getName(move) + ": " + moveNodes);
+			nodes += moveNodes;
+		}
+		out.println();
+		out.println("Nodes searched: " + nodes);
+		return nodes;
+	}
+
+	// ### Helper Methods
+	/**
+	 * Counts the leaf nodes below the current position, the last ply is counted in bulk.
+	 * Inner nodes are looked up in and stored to the table if there is one, the bulk count is cheaper than a lookup.
+	 *
+	 * @param depth The remaining depth, at least 1.
+	 * @param ply   The distance to the root, selects the move list.
+	 * @return The number of leaf nodes.
+	 */
+	private long count(int depth, int ply) {
+		if (depth == 1) {
+			moveCounter.clear();
+			MoveGenerator.generateAll(board, moveCounter);
+			return moveCounter.count;
+		}
+
+		long key = board.gameState.getZobristKey();
+		if (table != null) {
+			long cachedNodes = table.probe(key, depth);
+			if (cachedNodes >= 0) {
+				return cachedNodes;
+			}
+		}
+
+		MoveList moveList = moveLists[ply];
+		moveList.clear();
+		MoveGenerator.generateAll(board, moveList);
+
+		long nodes = 0;
+		for (int i = 0; i < moveList.count; i++) {
+			int move = moveList.moves[i];
+			board.makeMove(move);
+			nodes += count(depth - 1, ply + 1);
+			board.unmakeMove(move);
+		}
+		if (table != null) {
+			table.store(key, depth, nodes);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Makes sure there is a move list for every ply of the given depth.
+	 *
+	 * @param depth The depth in plies.
+	 */
+	private void allocateMoveLists(int depth) {
+		if (moveLists.length >= depth) {
+			return;
+		}
+		moveLists = new MoveList[depth];
+		for (int ply = 0; ply < depth; ply++) {
+			moveLists[ply] = new MoveList(new int[MoveOrdering.maxMoveCount]);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package game.perft;
+
+/**
+ * The PerftPosition class is a test position with its known perft node counts.
+ *
+ * @see game.perft.PerftSuite
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public final class PerftPosition {
+	private final String name;
+	private final String fen;
+	/**
+	 * Expected node counts, index 0 holds depth 1.
+	 */
+	private final long[] expectedNodes;
+
+	/**
+	 * Constructs a new PerftPosition.
+	 *
+	 * @param name          A short name of the position.
+	 * @param fen           The FEN of the position.
+	 * @param expectedNodes The expected node counts for depth 1, 2, 3, ...
+	 */
+	public PerftPosition(String name, String fen, long... expectedNodes) {
+		this.name = name;
+		this.fen = fen;
+		this.expectedNodes = expectedNodes.clone();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getFen() {
+		return fen;
+	}
+
+	/**
+	 * Gets the deepest depth with a known node count.
+	 *
+	 * @return The maximum depth.
+	 */
+	public int getMaxDepth() {
+		return expectedNodes.length;
+	}
+
+	/**
+	 * Gets the known node count of a depth.
+	 *
+	 * @param depth The depth, between 1 and {@link #getMaxDepth()}.
+	 * @return The expected number of leaf nodes.
+	 */
+	public long getExpectedNodes(int depth) {
+		return expectedNodes[depth - 1];
+	}
+}
@@ -0,0 +1,122 @@
+package game.perft;
+
+import java.io.PrintStream;
+
+import game.board.Board;
+
+/**
+ * The standard perft positions with their known node counts, run as a regression suite of the move generation.
+ *
+ * <p>
+ * The positions are the start position, Kiwipete, and the positions 3 to 6 of the Chess Programming Wiki perft results.
+ * Together they cover castling through and out of check, en passant that exposes the king on the rank,
+ * pinned pieces, double check and underpromotions.
+ * Position 4 is included for both colours, a count that only fails for one side points at a colour dependent bug.
+ * </p>
+ * <p>
+ * Every position is counted for every depth whose expected count stays below a node limit,
+ * so a wrong count is reported at the shallowest depth it appears.
+ * </p>
+ *
+ * @see game.perft.Perft
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public final class PerftSuite {
+	public static final PerftPosition[] standardPositions = {
+		new PerftPosition("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+				20L, 400L, 8902L, 197281L, 4865609L, 119060324L),
+		new PerftPosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				48L, 2039L, 97862L, 4085603L, 193690690L, 8031647685L),
+		new PerftPosition("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+				14L, 191L, 2812L, 43238L, 674624L, 11030083L, 178633661L),
+		new PerftPosition("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+				6L, 264L, 9467L, 422333L, 15833292L, 706045033L),
+		new PerftPosition("position 4 mirrored", "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1",
+				6L, 264L, 9467L, 422333L, 15833292L, 706045033L),
+		new PerftPosition("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+				44L, 1486L, 62379L, 2103487L, 89941194L),
+		new PerftPosition("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+				46L, 2079L, 89890L, 3894594L, 164075551L, 6923051137L),
+	};
+
+	/**
+	 * Node limit of the default run, a few seconds in total.
+	 */
+	public static final long defaultMaxNodes = 5_000_000L;
+
+	private PerftSuite() {
+	}
+
+	/**
+	 * Counts every standard position for every depth whose expected count is at most the node limit,
+	 * and prints the counts, the time and the nodes per second.
+	 *
+	 * @param maxNodes The largest expected count that is run.
+	 * @param threads  The number of threads, more than one counts with a {@link ParallelPerft}.
+	 * @param table    The cache of node counts, or null to count every subtree. It is cleared before every count.
+	 * @param out      The stream the results are printed to.
+	 * @return True if every count matched.
+	 */
+	public static boolean run(long maxNodes, int threads, PerftTable table, PrintStream out) {
+		Board board = new Board();
+		Perft perft = new Perft(board, table);
+		ParallelPerft parallelPerft = (threads > 1 ? new ParallelPerft(board, threads, ParallelPerft.defaultSplitDepth, table) : null);
+		boolean passed = true;
+		long totalNodes = 0;
+		long totalTime = 0;
+
+		for (PerftPosition position : standardPositions) {
+			board.loadFENBoard(position.getFen());
+
+			for (int depth = 1; depth <= position.getMaxDepth() && position.getExpectedNodes(depth) <= maxNodes; depth++) {
+				long expected = position.getExpectedNodes(depth);
+				// every count starts cold, a count must not reuse the results of the previous depth
+				if (table != null) {
+					table.clear();
+				}
+				long start = System.nanoTime();
+				long nodes = (parallelPerft != null ? parallelPerft.perft(depth) : perft.perft(depth));
+				long time = System.nanoTime() - start;
+
+				boolean matched = (nodes == expected);
+				passed &= matched;
+				totalNodes += nodes;
+				totalTime += time;
+				out.printf("%-20s depth %d %12d %s %8.1f ms %12d nps%s%n", position.getName(), depth, nodes,
+						(matched ? "ok  " : "FAIL (expected " + expected + ")"), time / 1e6, nodesPerSecond(nodes, time), hitRate(table));
+			}
+		}
+		if (parallelPerft != null) {
+			parallelPerft.shutdown();
+		}
+		out.printf("%s, %d nodes in %.1f ms, %d nps%n", (passed ? "all counts matched" : "COUNTS DIFFER"),
+				totalNodes, totalTime / 1e6, nodesPerSecond(totalNodes, totalTime));
+		return passed;
+	}
+
+	/**
+	 * Formats the hit rate of a table for the result line.
+	 *
+	 * @param table The table, or null.
+	 * @return The hit rate and probes, empty without a table.
+	 */
+	public static String hitRate(PerftTable table) {
+		if (table == null) {
+			return "";
+		}
+		return String.format(", hash hits %.1f%% of %d probes", table.getHitRate() * 100, table.getProbes());
+	}
+
+	/**
+	 * Calculates the nodes per second of a count.
+	 *
+	 * @param nodes The number of nodes.
+	 * @param time  The time in nanoseconds.
+	 * @return The nodes per second.
+	 */
+	public static long nodesPerSecond(long nodes, long time) {
+		return (time == 0 ? 0 : (long) (nodes * 1e9 / time));
+	}
+}
@@ -0,0 +1,109 @@
+package game.perft;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free cache of perft results, (Zobrist key, depth) to the number of leaf nodes.
+ *
+ * <p>
+ * Deep perft trees reach the same position through many move orders, with the cache every transposed subtree is only counted once.
+ * An entry is two longs: the node count packed with the depth, and the Zobrist key XORed with that data.
+ * Threads read and write the entries without locks, an entry whose two halves were written by different threads,
+ * or a torn write, does not give back the key on XOR and is treated as a miss.
+ * The index is taken from the low bits of the key, a new result always replaces the old one.
+ * </p>
+ * <p>
+ * The probes and hits are counted to report the hit rate.
+ * </p>
+ *
+ * @see game.perft.Perft
+ * @see game.board.Zobrist
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class PerftTable {
+	private static final int depthBits = 8;
+	private static final long depthMask = (1L << depthBits) - 1;
+
+	/**
+	 * Two longs per entry: key ^ data, data.
+	 */
+	private final long[] entries;
+	private final int indexMask;
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Creates an empty table.
+	 *
+	 * @param sizeInMb The size of the table in megabytes, rounded down to a power of two entries.
+	 */
+	public PerftTable(int sizeInMb) {
+		long entryCount = Long.highestOneBit(Math.max(1L, sizeInMb * 1024L * 1024L / 16));
+		entries = new long[(int) Math.min(entryCount * 2, 1L << 30)];
+		indexMask = entries.length / 2 - 1;
+	}
+
+	/**
+	 * Looks up the node count of a position.
+	 *
+	 * @param key   The Zobrist key of the position.
+	 * @param depth The depth of the count.
+	 * @return The number of leaf nodes, or -1 if the count is not stored.
+	 */
+	public long probe(long key, int depth) {
+		probes.increment();
+		int index = ((int) key & indexMask) * 2;
+		long data = entries[index + 1];
+
+		if ((entries[index] ^ data) == key && (data & depthMask) == depth) {
+			hits.increment();
+			return data >>> depthBits;
+		}
+		return -1;
+	}
+
+	/**
+	 * Stores the node count of a position, replacing the entry at its index.
+	 *
+	 * @param key   The Zobrist key of the position.
+	 * @param depth The depth of the count.
+	 * @param nodes The number of leaf nodes.
+	 */
+	public void store(long key, int depth, long nodes) {
+		int index = ((int) key & indexMask) * 2;
+		long data = (nodes << depthBits) | depth;
+
+		entries[index] = key ^ data;
+		entries[index + 1] = data;
+	}
+
+	/**
+	 * Removes all entries and resets the statistics.
+	 */
+	public void clear() {
+		Arrays.fill(entries, 0L);
+		probes.reset();
+		hits.reset();
+	}
+
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the share of probes that found a stored count.
+	 *
+	 * @return The hit rate between 0 and 1.
+	 */
+	public double getHitRate() {
+		long probeCount = probes.sum();
+		return (probeCount == 0 ? 0 : hits.sum() / (double) probeCount);
+	}
+}
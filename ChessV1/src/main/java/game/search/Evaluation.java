@@ -31,6 +31,10 @@ public class Evaluation {
      */
 	private int mopUpBlack;
 	/**
+     * Bitboards of the evaluated position.
+     */
+	private BitBoards bitBoards;
+	/**
      * Material score for the position.
      */
 	public int materialScore;
@@ -46,15 +50,34 @@ public class Evaluation {
 	public int blackEval;
 	
 	
+	/**
+     * Creates an evaluation that can be reused for many positions with {@link #update(Board)}.
+     */
+	public Evaluation() {
+		whiteMaterial = new MaterialInfo();
+		blackMaterial = new MaterialInfo();
+	}
+
 	/**
      * Initializes Material Info for the given position.
      *
      * @param board The chessboard for which to perform the evaluation.
      */
 	public Evaluation(Board board) {
+		this();
+		update(board);
+	}
+
+	/**
+     * Recomputes the Material Info for the given position without allocating new objects.
+     *
+     * @param board The chessboard for which to perform the evaluation.
+     */
+	public void update(Board board) {
 		
-		whiteMaterial = new MaterialInfo(true);
-		blackMaterial = new MaterialInfo(false);
+		bitBoards = board.bitBoards;
+		whiteMaterial.update(bitBoards, true);
+		blackMaterial.update(bitBoards, false);
 		
 		mopUpWhite = mopUpEval(true, whiteMaterial.Sum(), blackMaterial.Sum(), whiteMaterial.endgameT);
 		mopUpBlack = mopUpEval(false, blackMaterial.Sum(), whiteMaterial.Sum(), blackMaterial.endgameT);
@@ -75,8 +98,8 @@ public class Evaluation {
 
         if (myMaterial > opponentMaterial + MaterialInfo.PawnValue * 2 && endgameWeight > 0) {
         	
-            int friendlyKingSquare = isWhite ? Long.numberOfTrailingZeros(BitBoards.whiteKingBB): Long.numberOfTrailingZeros(BitBoards.blackKingBB);
-            int opponentKingSquare = isWhite ? Long.numberOfTrailingZeros(BitBoards.blackKingBB): Long.numberOfTrailingZeros(BitBoards.whiteKingBB);
+            int friendlyKingSquare = isWhite ? Long.numberOfTrailingZeros(bitBoards.whiteKingBB): Long.numberOfTrailingZeros(bitBoards.blackKingBB);
+            int opponentKingSquare = isWhite ? Long.numberOfTrailingZeros(bitBoards.blackKingBB): Long.numberOfTrailingZeros(bitBoards.whiteKingBB);
             
             int opponentKingRank = opponentKingSquare / 8;
             int opponentKingFile = opponentKingSquare % 8;
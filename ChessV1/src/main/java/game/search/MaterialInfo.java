@@ -39,12 +39,29 @@ public class MaterialInfo extends PieceSquareTable{
 //	private static final float endgameMaterialStart = RookValue * 2 + BishopValue + KnightValue;
 
 	
+	/**
+     * Creates an empty instance of MaterialInfo, to be filled with {@link #update(BitBoards, boolean)}.
+     */
+	public MaterialInfo() {
+	}
+
 	/**
      * Creates an instance of MaterialInfo for the specified side.
      *
+     * @param bitBoards The bitboards of the position.
      * @param isWhite Indicates whether the side is white.
      */
-	public MaterialInfo(boolean isWhite) {
+	public MaterialInfo(BitBoards bitBoards, boolean isWhite) {
+		update(bitBoards, isWhite);
+	}
+
+	/**
+     * Recomputes the material information for the specified side.
+     *
+     * @param bitBoards The bitboards of the position.
+     * @param isWhite Indicates whether the side is white.
+     */
+	public void update(BitBoards bitBoards, boolean isWhite) {
 		int numPawns;
 		int numKnights;
 		int numBishops;
@@ -52,17 +69,17 @@ public class MaterialInfo extends PieceSquareTable{
 		int numQueens;
 				
 		if (isWhite) {
-			numPawns = Long.bitCount(BitBoards.whitePawnsBB); //try if it works.
-			numKnights = BitBoardHelper.countSetBits(BitBoards.whiteKnightsBB);
-			numBishops = BitBoardHelper.countSetBits(BitBoards.whiteBishopsBB);
-			numRooks = BitBoardHelper.countSetBits(BitBoards.whiteRooksBB);
-			numQueens = BitBoardHelper.countSetBits(BitBoards.whiteQueensBB);
+			numPawns = Long.bitCount(bitBoards.whitePawnsBB); //try if it works.
+			numKnights = BitBoardHelper.countSetBits(bitBoards.whiteKnightsBB);
+			numBishops = BitBoardHelper.countSetBits(bitBoards.whiteBishopsBB);
+			numRooks = BitBoardHelper.countSetBits(bitBoards.whiteRooksBB);
+			numQueens = BitBoardHelper.countSetBits(bitBoards.whiteQueensBB);
 		} else {	
-			numPawns = BitBoardHelper.countSetBits(BitBoards.blackPawnsBB);
-			numKnights = BitBoardHelper.countSetBits(BitBoards.blackKnightsBB);
-			numBishops = BitBoardHelper.countSetBits(BitBoards.blackBishopsBB);
-			numRooks = BitBoardHelper.countSetBits(BitBoards.blackRooksBB);
-			numQueens = BitBoardHelper.countSetBits(BitBoards.blackQueensBB);
+			numPawns = BitBoardHelper.countSetBits(bitBoards.blackPawnsBB);
+			numKnights = BitBoardHelper.countSetBits(bitBoards.blackKnightsBB);
+			numBishops = BitBoardHelper.countSetBits(bitBoards.blackBishopsBB);
+			numRooks = BitBoardHelper.countSetBits(bitBoards.blackRooksBB);
+			numQueens = BitBoardHelper.countSetBits(bitBoards.blackQueensBB);
 		}
 
 		materialScore = 0;
@@ -77,17 +94,18 @@ public class MaterialInfo extends PieceSquareTable{
 		int endgameWeightSum = numQueens * queenEndgameWeight + numRooks * rookEndgameWeight + numBishops * bishopEndgameWeight + numKnights * knightEndgameWeight;
 		endgameT = 1 - Math.min(1, endgameWeightSum / (float) endgameStartWeight);
 		
-		pieceSquareScore = EvaluatePieceSquareTables(isWhite, endgameT);
+		pieceSquareScore = EvaluatePieceSquareTables(bitBoards, isWhite, endgameT);
 	}
 	
 	/**
      * Evaluates the piece square tables for the side in early and late phases.
      *
+     * @param bitBoards  The bitboards of the position.
      * @param isWhite    Indicates whether the side is white.
      * @param endgameT   Endgame transition factor.
      * @return The value based on piece square tables.
      */
-	private int EvaluatePieceSquareTables(boolean isWhite, float endgameT) {
+	private int EvaluatePieceSquareTables(BitBoards bitBoards, boolean isWhite, float endgameT) {
 		int value = 0;
 		int pawnEarly = 0;
 		int pawnLate = 0;
@@ -96,25 +114,25 @@ public class MaterialInfo extends PieceSquareTable{
 		
 		//Evaluate pieces and their values
 		if (isWhite) {
-			value += EvaluatePieceSquareTable(PieceSquareTable.rooks, BitBoards.whiteRooksBB, true);
-			value += EvaluatePieceSquareTable(PieceSquareTable.knights, BitBoards.whiteKnightsBB, true);
-			value += EvaluatePieceSquareTable(PieceSquareTable.bishops, BitBoards.whiteBishopsBB, true);
-			value += EvaluatePieceSquareTable(PieceSquareTable.queens, BitBoards.whiteRooksBB, true);
+			value += EvaluatePieceSquareTable(PieceSquareTable.rooks, bitBoards.whiteRooksBB, true);
+			value += EvaluatePieceSquareTable(PieceSquareTable.knights, bitBoards.whiteKnightsBB, true);
+			value += EvaluatePieceSquareTable(PieceSquareTable.bishops, bitBoards.whiteBishopsBB, true);
+			value += EvaluatePieceSquareTable(PieceSquareTable.queens, bitBoards.whiteRooksBB, true);
 			
-			pawnEarly = EvaluatePieceSquareTable(PieceSquareTable.pawns, BitBoards.whitePawnsBB, true);
-			pawnLate = EvaluatePieceSquareTable(PieceSquareTable.pawnsEnd, BitBoards.whitePawnsBB, true);	
-			kingEarlyPhase = EvaluatePieceSquareTable(PieceSquareTable.kingStart, BitBoards.whiteKingBB, true);
-			kingLatePhase = EvaluatePieceSquareTable(PieceSquareTable.kingEnd, BitBoards.whiteKingBB, true);
+			pawnEarly = EvaluatePieceSquareTable(PieceSquareTable.pawns, bitBoards.whitePawnsBB, true);
+			pawnLate = EvaluatePieceSquareTable(PieceSquareTable.pawnsEnd, bitBoards.whitePawnsBB, true);	
+			kingEarlyPhase = EvaluatePieceSquareTable(PieceSquareTable.kingStart, bitBoards.whiteKingBB, true);
+			kingLatePhase = EvaluatePieceSquareTable(PieceSquareTable.kingEnd, bitBoards.whiteKingBB, true);
 		} else {
-			value += EvaluatePieceSquareTable(PieceSquareTable.rooks, BitBoards.blackRooksBB, false);
-			value += EvaluatePieceSquareTable(PieceSquareTable.knights, BitBoards.blackKnightsBB, false);
-			value += EvaluatePieceSquareTable(PieceSquareTable.bishops, BitBoards.blackBishopsBB, false);
-			value += EvaluatePieceSquareTable(PieceSquareTable.queens, BitBoards.blackRooksBB, false);
+			value += EvaluatePieceSquareTable(PieceSquareTable.rooks, bitBoards.blackRooksBB, false);
+			value += EvaluatePieceSquareTable(PieceSquareTable.knights, bitBoards.blackKnightsBB, false);
+			value += EvaluatePieceSquareTable(PieceSquareTable.bishops, bitBoards.blackBishopsBB, false);
+			value += EvaluatePieceSquareTable(PieceSquareTable.queens, bitBoards.blackRooksBB, false);
 
-			pawnEarly = EvaluatePieceSquareTable(PieceSquareTable.pawns, BitBoards.blackPawnsBB, false);
-			pawnLate = EvaluatePieceSquareTable(PieceSquareTable.pawnsEnd, BitBoards.blackPawnsBB, false);
-			kingEarlyPhase = EvaluatePieceSquareTable(PieceSquareTable.kingStart, BitBoards.blackKingBB, false);
-			kingLatePhase = EvaluatePieceSquareTable(PieceSquareTable.kingEnd, BitBoards.blackKingBB, false);
+			pawnEarly = EvaluatePieceSquareTable(PieceSquareTable.pawns, bitBoards.blackPawnsBB, false);
+			pawnLate = EvaluatePieceSquareTable(PieceSquareTable.pawnsEnd, bitBoards.blackPawnsBB, false);
+			kingEarlyPhase = EvaluatePieceSquareTable(PieceSquareTable.kingStart, bitBoards.blackKingBB, false);
+			kingLatePhase = EvaluatePieceSquareTable(PieceSquareTable.kingEnd, bitBoards.blackKingBB, false);
 		}
 		
 		//weight pawns and kings differently if endgame
@@ -136,9 +154,10 @@ public class MaterialInfo extends PieceSquareTable{
      */
 	private int EvaluatePieceSquareTable(int[] table, long PieceBB, boolean isWhite) {
 		int value = 0;
-		for (int pos : BitBoardHelper.getAllPos(PieceBB)) {
-            value += PieceSquareTable.read(table, pos, isWhite);
-        }
+		while (PieceBB != 0) {
+			value += PieceSquareTable.read(table, Long.numberOfTrailingZeros(PieceBB), isWhite);
+			PieceBB &= PieceBB - 1;
+		}
 		
 		return value;
 	}
@@ -1,43 +1,160 @@
 package game.search;
 
+import game.board.Board;
+
 /**
- * Represents a chess move from one square to another.
- * 
+ * Represents a chess move packed into a single int, so that moves can be generated, stored and ordered without allocating objects.
+ *
+ * <p>
+ * Layout of the bits:
+ * </p>
+ * <pre>
+ *  0 -  5  from square
+ *  6 - 11  to square
+ * 12 - 14  flag (en passant, castle, pawn double move, promotion piece)
+ * 16 - 18  type of the moved piece
+ * 19 - 21  type of the captured piece, 0 if the move is not a capture
+ * </pre>
+ * Squares are given in BitBoard annotation, piece types use the same values as {@link game.movegeneration.pieces.PieceI#getPieceType(int)}.
+ *
  * @see game.search.MoveOrdering
- * 
+ * @see game.board.Board#makeMove(int)
+ *
  * @author Ryu
  * @version 1.0
  */
 public class Move {
-    private int from;
-    private int to;
-
-    /**
-     * Creates a new Move object with the specified source and destination squares.
-     *
-     * @param from The square index from which the move originates.
-     * @param to   The square index to which the move is made.
-     */
-    public Move(int from, int to) {
-        this.from = from;
-        this.to = to;
-    }
-
-    /**
-     * Gets the square index from which the move originates.
-     *
-     * @return The square index from which the move originates.
-     */
-    public int getFrom() {
-        return from;
-    }
-
-    /**
-     * Gets the square index to which the move is made.
-     *
-     * @return The square index to which the move is made.
-     */
-    public int getTo() {
-        return to;
-    }
-}
\ No newline at end of file
+	/**
+	 * Value that never represents a legal move.
+	 */
+	public static final int nullMove = 0;
+
+	public static final int noFlag = 0;
+	public static final int enPassantCaptureFlag = 1;
+	public static final int castleFlag = 2;
+	public static final int pawnTwoUpFlag = 3;
+	public static final int promoteToKnightFlag = 4;
+	public static final int promoteToBishopFlag = 5;
+	public static final int promoteToRookFlag = 6;
+	public static final int promoteToQueenFlag = 7;
+
+	private static final int squareMask = 0b111111;
+	private static final int flagMask = 0b111;
+	private static final int pieceMask = 0b111;
+
+	private static final int toShift = 6;
+	private static final int flagShift = 12;
+	private static final int pieceShift = 16;
+	private static final int capturedShift = 19;
+
+	private static final String promotionNames = "  nbrq";
+
+	private Move() {
+	}
+
+	/**
+	 * Packs the given move information into an int.
+	 *
+	 * @param from               The square index from which the move originates.
+	 * @param to                 The square index to which the move is made.
+	 * @param pieceType          The type of the moved piece.
+	 * @param capturedPieceType  The type of the captured piece, 0 if nothing is captured.
+	 * @param flag               The move flag.
+	 * @return The encoded move.
+	 */
+	public static int encode(int from, int to, int pieceType, int capturedPieceType, int flag) {
+		return from | to << toShift | flag << flagShift | pieceType << pieceShift | capturedPieceType << capturedShift;
+	}
+
+	/**
+	 * Gets the square index from which the move originates.
+	 *
+	 * @param move The encoded move.
+	 * @return The square index from which the move originates.
+	 */
+	public static int getFrom(int move) {
+		return move & squareMask;
+	}
+
+	/**
+	 * Gets the square index to which the move is made.
+	 *
+	 * @param move The encoded move.
+	 * @return The square index to which the move is made.
+	 */
+	public static int getTo(int move) {
+		return (move >>> toShift) & squareMask;
+	}
+
+	/**
+	 * Gets the flag of the move.
+	 *
+	 * @param move The encoded move.
+	 * @return The move flag.
+	 */
+	public static int getFlag(int move) {
+		return (move >>> flagShift) & flagMask;
+	}
+
+	/**
+	 * Gets the type of the moved piece.
+	 *
+	 * @param move The encoded move.
+	 * @return The type of the moved piece.
+	 */
+	public static int getPieceType(int move) {
+		return (move >>> pieceShift) & pieceMask;
+	}
+
+	/**
+	 * Gets the type of the captured piece.
+	 *
+	 * @param move The encoded move.
+	 * @return The type of the captured piece, 0 if the move is not a capture.
+	 */
+	public static int getCapturedPieceType(int move) {
+		return (move >>> capturedShift) & pieceMask;
+	}
+
+	public static boolean isCapture(int move) {
+		return getCapturedPieceType(move) != 0;
+	}
+
+	public static boolean isPromotion(int move) {
+		return getFlag(move) >= promoteToKnightFlag;
+	}
+
+	/**
+	 * Gets the type of the piece a pawn is promoted to.
+	 *
+	 * @param move The encoded move.
+	 * @return The type of the promotion piece, 0 if the move is not a promotion.
+	 */
+	public static int getPromotionPieceType(int move) {
+		return isPromotion(move) ? getFlag(move) - 2 : 0;
+	}
+
+	/**
+	 * Gets the flag for promoting to the given piece type.
+	 *
+	 * @param pieceType The type of the promotion piece (2-5).
+	 * @return The promotion flag.
+	 */
+	public static int promotionFlag(int pieceType) {
+		return pieceType + 2;
+	}
+
+	/**
+	 * Gets the name of the move in long algebraic notation, e.g. "e2e4" or "e7e8q".
+	 *
+	 * @param move The encoded move.
+	 * @return The name of the move.
+	 */
+	public static String getName(int move) {
+		String name = Board.translateBBToSquare(getFrom(move)) + Board.translateBBToSquare(getTo(move));
+		if (isPromotion(move)) {
+			name += promotionNames.charAt(getPromotionPieceType(move));
+		}
+		return name;
+	}
+}
@@ -0,0 +1,244 @@
+package game.search;
+
+import game.board.Board;
+import game.movegeneration.MoveGenerator;
+import game.movegeneration.MoveList;
+import game.movegeneration.MoveSink;
+import game.movegeneration.pieces.PieceI;
+
+/**
+ * Hands out the moves of one node in stages, so that the work for later stages is skipped when an earlier move cuts off.
+ *
+ * <p>
+ * The stages are:
+ * <ol>
+ * <li>the hash move, the move expected to be best, verified before it is returned,</li>
+ * <li>captures, en passant and promotions, ordered by {@link MoveOrdering} (most valuable victim, least valuable attacker),</li>
+ * <li>the killer moves, quiet moves that caused a beta cutoff at the same ply in a sibling node,</li>
+ * <li>all remaining quiet moves, ordered by {@link MoveOrdering}.</li>
+ * </ol>
+ * The captures are generated by {@link MoveGenerator#generateCaptures(Board, boolean, MoveSink)} when they are needed,
+ * the quiet moves by {@link MoveGenerator#generateQuiets(Board, boolean, MoveSink)} only if neither the hash move, the captures nor the killers cut off.
+ * The hash move and the killers are verified on their own, without generating the moves of the node.
+ * Moves already returned in an earlier stage are not returned again.
+ * </p>
+ * <p>
+ * In pseudo-legal mode the moves are generated without the pin and check tests,
+ * each move is only verified with {@link MoveGenerator#isLegal(Board, int)} when it is about to be returned.
+ * </p>
+ * <p>
+ * A picker owns its buffers, the search keeps one picker per ply so that no memory is allocated during the search.
+ * </p>
+ *
+ * @see game.search.Searcher
+ * @see game.search.MoveOrdering
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class MovePicker {
+	// Stages
+	private static final int hashStage = 0;
+	private static final int generateCapturesStage = 1;
+	private static final int capturesStage = 2;
+	private static final int firstKillerStage = 3;
+	private static final int secondKillerStage = 4;
+	private static final int generateQuietsStage = 5;
+	private static final int quietsStage = 6;
+	private static final int doneStage = 7;
+
+	private final MoveOrdering moveOrdering;
+	private final boolean pseudoLegal;
+	private final int[] moves = new int[MoveOrdering.maxMoveCount];
+	private final int[] scores = new int[MoveOrdering.maxMoveCount];
+	/**
+	 * Receives the moves of the current stage into the move buffer.
+	 */
+	private final MoveList generated = new MoveList(moves);
+
+	private Board board;
+	private int stage;
+	private int hashMove;
+	private int firstKiller;
+	private int secondKiller;
+	private int count;
+	private int index;
+
+	/**
+	 * Creates a move picker that generates legal moves.
+	 *
+	 * @param moveOrdering The move ordering used to order captures and quiet moves.
+	 */
+	public MovePicker(MoveOrdering moveOrdering) {
+		this(moveOrdering, false);
+	}
+
+	/**
+	 * Creates a move picker.
+	 *
+	 * @param moveOrdering The move ordering used to order captures and quiet moves.
+	 * @param pseudoLegal  Whether pseudo-legal moves are generated and verified lazily, instead of generating legal moves.
+	 */
+	public MovePicker(MoveOrdering moveOrdering, boolean pseudoLegal) {
+		this.moveOrdering = moveOrdering;
+		this.pseudoLegal = pseudoLegal;
+	}
+
+	/**
+	 * Prepares the picker for a new node, no moves are generated yet.
+	 *
+	 * @param board        The board of the node.
+	 * @param hashMove     The move expected to be best, or {@link Move#nullMove}.
+	 * @param firstKiller  The first killer move of the ply, or {@link Move#nullMove}.
+	 * @param secondKiller The second killer move of the ply, or {@link Move#nullMove}.
+	 */
+	public void init(Board board, int hashMove, int firstKiller, int secondKiller) {
+		this.board = board;
+		this.hashMove = hashMove;
+		this.firstKiller = firstKiller;
+		this.secondKiller = secondKiller;
+		stage = hashStage;
+		count = 0;
+		index = 0;
+	}
+
+	/**
+	 * Gets the next move of the node.
+	 *
+	 * @return The next encoded move, or {@link Move#nullMove} when all moves were returned.
+	 */
+	public int nextMove() {
+		while (true) {
+			switch (stage) {
+			case hashStage:
+				stage = generateCapturesStage;
+				if (hashMove != Move.nullMove && isLegal(hashMove)) {
+					return hashMove;
+				}
+				hashMove = Move.nullMove;
+				break;
+			case generateCapturesStage:
+				generateStage(true);
+				moveOrdering.orderMoves(board, moves, scores, count);
+				index = 0;
+				stage = capturesStage;
+				break;
+			case capturesStage:
+				if (index < count) {
+					int move = moves[index++];
+					if (isPlayable(move)) {
+						return move;
+					}
+					break;
+				}
+				stage = firstKillerStage;
+				break;
+			case firstKillerStage:
+				stage = secondKillerStage;
+				if (isKiller(firstKiller)) {
+					return firstKiller;
+				}
+				break;
+			case secondKillerStage:
+				stage = generateQuietsStage;
+				if (secondKiller != firstKiller && isKiller(secondKiller)) {
+					return secondKiller;
+				}
+				break;
+			case generateQuietsStage:
+				generateStage(false);
+				moveOrdering.orderMoves(board, moves, scores, count);
+				index = 0;
+				stage = quietsStage;
+				break;
+			case quietsStage:
+				if (index < count) {
+					int move = moves[index++];
+					if (isPlayable(move)) {
+						return move;
+					}
+					break;
+				}
+				stage = doneStage;
+				break;
+			default:
+				return Move.nullMove;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a move is a capture, en passant or promotion, the moves of the captures stage.
+	 *
+	 * @param move The encoded move.
+	 * @return True if the move is returned with the captures.
+	 */
+	public static boolean isTactical(int move) {
+		return Move.isCapture(move) || Move.isPromotion(move) || Move.getFlag(move) == Move.enPassantCaptureFlag;
+	}
+
+	// ### Helper Methods
+	/**
+	 * Generates the moves of a stage into the move buffer.
+	 * Moves returned in an earlier stage are left out: the hash move, and for the quiet moves the killers.
+	 *
+	 * @param captures True for the captures, en passant and promotions, false for the quiet moves.
+	 */
+	private void generateStage(boolean captures) {
+		generated.clear();
+		if (captures) {
+			MoveGenerator.generateCaptures(board, !pseudoLegal, generated);
+		} else {
+			MoveGenerator.generateQuiets(board, !pseudoLegal, generated);
+		}
+		count = 0;
+
+		for (int i = 0; i < generated.count; i++) {
+			int move = moves[i];
+			if (move != hashMove && (captures || (move != firstKiller && move != secondKiller))) {
+				moves[count++] = move;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a generated move may be returned, in pseudo-legal mode its legality is verified now.
+	 *
+	 * @param move The encoded move.
+	 * @return True if the move is legal.
+	 */
+	private boolean isPlayable(int move) {
+		return !pseudoLegal || MoveGenerator.isLegal(board, move);
+	}
+
+	/**
+	 * Checks whether a killer move can be returned in this node: it is legal and quiet here, and it is not the hash move.
+	 * A killer that is not returned here is not legal or was already returned, it is left out of the quiet moves either way.
+	 *
+	 * @param move The encoded killer move, or {@link Move#nullMove}.
+	 * @return True if the killer is returned.
+	 */
+	private boolean isKiller(int move) {
+		return move != Move.nullMove && move != hashMove && !isTactical(move) && isLegal(move);
+	}
+
+	/**
+	 * Checks whether a move is legal in this node before any moves are generated, only the moving piece is generated.
+	 *
+	 * @param move The encoded move.
+	 * @return True if the move is legal.
+	 */
+	private boolean isLegal(int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int piece = board.square[from];
+
+		if (piece == PieceI.empty || PieceI.isWhite(piece) != board.gameState.getIsWhiteToMove()) {
+			return false;
+		}
+		long pieceTargets = PieceI.generateMove(board.bitBoards, piece, from, board.gameState);
+		int promotionPieceType = (Move.isPromotion(move) ? Move.getPromotionPieceType(move) : 5);
+
+		return (pieceTargets & (1L << to)) != 0 && board.createMove(from, to, promotionPieceType) == move;
+	}
+}
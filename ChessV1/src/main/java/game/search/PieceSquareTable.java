@@ -112,7 +112,7 @@ class PieceSquareTable {
 	protected static int read(int[] table, int square, boolean isWhite) {
 		if (isWhite) {
 			//when white read from the bottom of the table
-			square = Board.toBBSquare(square);
+			square = Board.flipRank(square);
 		}
 		//System.out.println("Square: " + square + "= " + table[square]+" is white: " + isWhite);
 
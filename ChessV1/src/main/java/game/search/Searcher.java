@@ -1,18 +1,18 @@
 package game.search;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import game.board.Board;
-import game.movegeneration.BitBoards;
-import game.movegeneration.pieces.PieceI;
+import game.movegeneration.MoveGenerator;
+import game.movegeneration.MoveList;
 
 /**
  * Class responsible for searching the game tree and finding the best move.
  * 
  * Implementation of a negamax search with alpha-beta pruning and quiescence search.
+ * The moves of the main search are handed out in stages by a {@link MovePicker} per ply,
+ * quiet moves that cause a beta cutoff are kept as killer moves of their ply.
  * 
  * @see game.search.Evaluation
+ * @see game.search.MovePicker
  * @see game.search.MoveOrdering
  * @see game.board.Board
  * 
@@ -29,9 +29,43 @@ public class Searcher {
 	private int quiescenceDepth = 10; //ply
 
 	public int movesCalculated;
-	public Move bestMoveSoFar;
+	public int bestMoveSoFar;
 	public int bestEvalSoFar;
 	private int startingDepth;
+	private int rootHashMove;
+
+	// Search stack, one move and score buffer and one move picker per ply, reused for the whole search
+	private static final int defaultMaxPly = 64;
+	private int[][] moveBuffer;
+	private int[][] scoreBuffer;
+	// the move buffer of a ply wrapped as sink for the quiescence search
+	private MoveList[] captureLists;
+	private MovePicker[] movePickers;
+	// two killer moves per ply
+	private int[][] killerMoves;
+
+	private final MoveOrdering moveOrdering;
+	private final Evaluation eval;
+	private final boolean pseudoLegal;
+
+	/**
+     * Creates a searcher that generates legal moves and preallocates its move buffers.
+     */
+	public Searcher() {
+		this(false);
+	}
+
+	/**
+     * Creates a searcher and preallocates its move buffers.
+     *
+     * @param pseudoLegal Whether the main search generates pseudo-legal moves and verifies each move only when it is played.
+     */
+	public Searcher(boolean pseudoLegal) {
+		this.pseudoLegal = pseudoLegal;
+		moveOrdering = new MoveOrdering();
+		eval = new Evaluation();
+		allocateBuffers(defaultMaxPly);
+	}
 
 	/**
      * Calculates the best move for the given board position and search depth.
@@ -40,17 +74,37 @@ public class Searcher {
      * @param depth The search depth.
      */
 	public void calcBestMove(Board board, int depth) {
+		calcBestMove(board, depth, Move.nullMove);
+	}
+
+	/**
+     * Calculates the best move for the given board position and search depth,
+     * searching a move expected to be best first, e.g. the best move of a previous search of the same position.
+     *
+     * @param board    The current game board.
+     * @param depth    The search depth.
+     * @param hashMove The move searched first at the root if it is legal, or {@link Move#nullMove}.
+     */
+	public void calcBestMove(Board board, int depth, int hashMove) {
 		startingDepth = depth;
+		if (depth + quiescenceDepth + 1 > moveBuffer.length) {
+			allocateBuffers(depth + quiescenceDepth + 1);
+		}
 
 		movesCalculated = 0;
-		bestMoveSoFar = null;
+		bestMoveSoFar = Move.nullMove;
+		rootHashMove = hashMove;
+		for (int[] killers : killerMoves) {
+			killers[0] = Move.nullMove;
+			killers[1] = Move.nullMove;
+		}
 		int alpha =  -1000001;
 		int beta =   1000000;
-		//	boolean maximizingPlayer = board.gameStateStack.peek().getIsWhiteToMove();
+		//	boolean maximizingPlayer = board.gameState.getIsWhiteToMove();
 
 		bestEvalSoFar = startSearch(board, depth, alpha, beta, true);
 
-		//System.out.println("Best Eval: " + bestEvalSoFar + " Best Move: " + Board.translateBBToSquare(bestMoveSoFar.getFrom()) + "-" + Board.translateBBToSquare(bestMoveSoFar.getTo()));
+		//System.out.println("Best Eval: " + bestEvalSoFar + " Best Move: " + Board.translateBBToSquare(Move.getFrom(bestMoveSoFar)) + "-" + Board.translateBBToSquare(Move.getTo(bestMoveSoFar)));
 	}
 
 
@@ -70,24 +124,21 @@ public class Searcher {
 			return quiescenceSearch(board, alpha, beta, counter, maximizingPlayer);
 		}
 
-		List<Move> possibleMoves = generateMoves(board);
-
-		// if no moves available return depending on stalemate or checkmate
-		if (possibleMoves.isEmpty()) {
-			if (BitBoards.isInCheck(false)){
-				return -999999;
+		int ply = startingDepth - depth;
+		int[] killers = killerMoves[ply];
+		MovePicker movePicker = movePickers[ply];
+		movePicker.init(board, (depth == startingDepth ? rootHashMove : Move.nullMove), killers[0], killers[1]);
+		int moveCount = 0;
+		int move;
+
+		while ((move = movePicker.nextMove()) != Move.nullMove) {
+			moveCount++;
+			if (bestMoveSoFar == Move.nullMove) {
+				bestMoveSoFar = move;
 			}
-			return 0;
-		}
-
-		if (bestMoveSoFar == null) {
-			bestMoveSoFar = possibleMoves.get(0);
-		}
-
-		for (Move move : possibleMoves) {
-			board.movePiece(move.getFrom(), move.getTo());
+			board.makeMove(move);
 			int evaluation = -startSearch(board, depth - 1, -beta, -alpha, !maximizingPlayer);
-			board.loadPreviousBoard();
+			board.unmakeMove(move);
 
 			if (evaluation > alpha) {
 				alpha = evaluation;
@@ -101,10 +152,23 @@ public class Searcher {
 			
 			if (turnOnAlphaBeta) {
 				if (evaluation >= beta) {
+					// remember quiet moves that cut off, they are likely to cut off in sibling nodes as well
+					if (!MovePicker.isTactical(move) && move != killers[0]) {
+						killers[1] = killers[0];
+						killers[0] = move;
+					}
 					break; // Beta cutoff
 				}
 			}
 		}
+
+		// if no moves available return depending on stalemate or checkmate
+		if (moveCount == 0) {
+			if (board.bitBoards.isInCheck(board.gameState.getIsWhiteToMove())){
+				return -999999;
+			}
+			return 0;
+		}
 		return alpha;
 
 	}
@@ -125,8 +189,8 @@ public class Searcher {
 		// Otherwise the position may be evaluated as bad even if good non-capturing moves are available
 		movesCalculated++;
 
-		Evaluation eval = new Evaluation(board);
-		int evaluation = eval.evaluate(board.gameStateStack.peek().getIsWhiteToMove());
+		eval.update(board);
+		int evaluation = eval.evaluate(board.gameState.getIsWhiteToMove());
 
 
 		//not working as intended
@@ -147,26 +211,35 @@ public class Searcher {
 
 
 
-		// Generate capturing moves
-		List<Move> capturingMoves = generateCaptureMoves(board);
+		// Generate capturing moves, en passant and promotions, the same tactical moves the move picker hands out first
+		int ply = startingDepth + counter;
+		MoveList captureList = captureLists[ply];
+		captureList.clear();
+		MoveGenerator.generateCaptures(board, true, captureList);
+		int[] capturingMoves = captureList.moves;
+		int captureCount = captureList.count;
+		if (turnOnMoveOrdering) {
+			moveOrdering.orderMoves(board, capturingMoves, scoreBuffer[ply], captureCount);
+		}
 
-		if (capturingMoves.isEmpty()) {
+		if (captureCount == 0) {
 			return evaluation;
 		}
 
-		for (Move capture : capturingMoves) {
+		for (int i = 0; i < captureCount; i++) {
+			int capture = capturingMoves[i];
 			//evaluates the last position to the beta of 
 
 
-			board.movePiece(capture.getFrom(), capture.getTo());
+			board.makeMove(capture);
 
 			//Search recursively for further captures
 			evaluation = -quiescenceSearch(board, -beta, -alpha, counter, !maximizingPlayer);
 
 //			Evaluation eval2 = new Evaluation(board);
-//			int evaluation2 = -eval2.Evaluate(board.gameStateStack.peek().getIsWhiteToMove());
+//			int evaluation2 = -eval2.Evaluate(board.gameState.getIsWhiteToMove());
 
-			board.loadPreviousBoard();
+			board.unmakeMove(capture);
 
 
 
@@ -175,14 +248,14 @@ public class Searcher {
 				if (!maximizingPlayer) {
 					if (evaluation >= beta) {
 						if (showDebugInfo) {
-							System.out.println("        XXX W   Beta cutoff  " + Board.translateBBToSquare(capture.getFrom()) + " - " + Board.translateBBToSquare(capture.getTo())+ ",     alpha: " + alpha + ",     beta: " + beta + ",    current eval: " + evaluation);							
+							System.out.println("        XXX W   Beta cutoff  " + Board.translateBBToSquare(Move.getFrom(capture)) + " - " + Board.translateBBToSquare(Move.getTo(capture))+ ",     alpha: " + alpha + ",     beta: " + beta + ",    current eval: " + evaluation);							
 						}
 						break; // Beta cutoff
 					}
 				} else {
 					if (evaluation <= beta) {
 						if (showDebugInfo) {
-							System.out.println("        XXX B   Beta cutoff  " + Board.translateBBToSquare(capture.getFrom()) + " - " + Board.translateBBToSquare(capture.getTo())+ ",     alpha: " + alpha + ",     beta: " + beta + ",    current eval: " + evaluation);
+							System.out.println("        XXX B   Beta cutoff  " + Board.translateBBToSquare(Move.getFrom(capture)) + " - " + Board.translateBBToSquare(Move.getTo(capture))+ ",     alpha: " + alpha + ",     beta: " + beta + ",    current eval: " + evaluation);
 						}
 						break; // Beta cutoff
 					}								
@@ -202,7 +275,7 @@ public class Searcher {
 
 
 			if (showDebugInfo) {
-				System.out.println("            capture Move: " + Board.translateBBToSquare(capture.getFrom()) + " - " + Board.translateBBToSquare(capture.getTo()) + "                alpha: " + alpha + ",    beta: " + beta + ",      eval: " + evaluation);
+				System.out.println("            capture Move: " + Board.translateBBToSquare(Move.getFrom(capture)) + " - " + Board.translateBBToSquare(Move.getTo(capture)) + "                alpha: " + alpha + ",    beta: " + beta + ",      eval: " + evaluation);
 
 			}
 		
@@ -216,42 +289,6 @@ public class Searcher {
 		return alpha;
 	}
 
-	/**
-     * Generates all possible moves for the current side to move.
-     *
-     * @param board The current game board.
-     * @return A list of all possible moves.
-     */
-	private static List<Move> generateMoves(Board board) {
-		PieceI[] currentBoard = board.square;
-		List<Move> moves = new ArrayList<>();
-
-		boolean isWhiteToMove = board.gameStateStack.peek().getIsWhiteToMove();
-
-		for (int from = 0; from < currentBoard.length; from++) {
-			int fromBB = Board.toBBSquare(from);
-
-			if (currentBoard[fromBB] != null && currentBoard[fromBB].isWhite() == isWhiteToMove) {
-				long validMoves = currentBoard[fromBB].generateMove(from, currentBoard[fromBB].isWhite(), board.gameStateStack.peek());
-
-				while (validMoves != 0) {
-					long leastSignificantBit = validMoves & -validMoves;
-					int to = Long.numberOfTrailingZeros(leastSignificantBit);
-					Move move = new Move(from, to);
-					moves.add(move);
-					validMoves ^= leastSignificantBit;  // Clear the least significant bit
-
-					// System.out.println(move.getFrom() + " " + move.getTo());
-				}		
-			}
-		}
-		if (turnOnMoveOrdering) {
-			MoveOrdering order = new MoveOrdering(moves);
-			order.orderMoves(board, moves);
-		}
-		return moves;
-	}
-	
 	/**
      * Provides debug information for better understanding of the search process.
      *
@@ -261,9 +298,9 @@ public class Searcher {
      * @param beta       The beta value.
      * @param evaluation The evaluation score.
      */
-	private void debugInfo(int depth, Move move, int alpha, int beta, int evaluation) {
+	private void debugInfo(int depth, int move, int alpha, int beta, int evaluation) {
 		if (depth == 3) {
-			System.out.println("Depth 3: " + Board.translateBBToSquare(move.getFrom()) + "-" + Board.translateBBToSquare(move.getTo()) + ",  bestMove: " +  Board.translateBBToSquare(bestMoveSoFar.getFrom()) + "-" + Board.translateBBToSquare(bestMoveSoFar.getTo())+",     alpha: " + alpha  + ",     beta: " + beta + ",    current eval: " + evaluation);
+			System.out.println("Depth 3: " + Board.translateBBToSquare(Move.getFrom(move)) + "-" + Board.translateBBToSquare(Move.getTo(move)) + ",  bestMove: " +  Board.translateBBToSquare(Move.getFrom(bestMoveSoFar)) + "-" + Board.translateBBToSquare(Move.getTo(bestMoveSoFar))+",     alpha: " + alpha  + ",     beta: " + beta + ",    current eval: " + evaluation);
 			System.out.println("--------------------------------------");
 			System.out.println();
 			System.out.println();
@@ -271,49 +308,30 @@ public class Searcher {
 		}
 
 		if (depth == 2) {
-			System.out.println("Depth 2: " + Board.translateBBToSquare(move.getFrom()) + "-" + Board.translateBBToSquare(move.getTo()) + ",  bestMove: " +  Board.translateBBToSquare(bestMoveSoFar.getFrom()) + "-" + Board.translateBBToSquare(bestMoveSoFar.getTo())+",     alpha: " + alpha  + ",     beta: " + beta + ",    current eval: " + evaluation);
+			System.out.println("Depth 2: " + Board.translateBBToSquare(Move.getFrom(move)) + "-" + Board.translateBBToSquare(Move.getTo(move)) + ",  bestMove: " +  Board.translateBBToSquare(Move.getFrom(bestMoveSoFar)) + "-" + Board.translateBBToSquare(Move.getTo(bestMoveSoFar))+",     alpha: " + alpha  + ",     beta: " + beta + ",    current eval: " + evaluation);
 			System.out.println();
 			System.out.println();
 		}
 
 		if (depth == 1) {
-			System.out.println("     Depth 1: " + Board.translateBBToSquare(move.getFrom()) + "-" + Board.translateBBToSquare(move.getTo()) + ",  bestMove: " +  Board.translateBBToSquare(bestMoveSoFar.getFrom()) + "-" + Board.translateBBToSquare(bestMoveSoFar.getTo())+",     alpha: " + alpha + ",     beta: " + beta +",    current eval: " + evaluation);
+			System.out.println("     Depth 1: " + Board.translateBBToSquare(Move.getFrom(move)) + "-" + Board.translateBBToSquare(Move.getTo(move)) + ",  bestMove: " +  Board.translateBBToSquare(Move.getFrom(bestMoveSoFar)) + "-" + Board.translateBBToSquare(Move.getTo(bestMoveSoFar))+",     alpha: " + alpha + ",     beta: " + beta +",    current eval: " + evaluation);
 		}
 	}
 	
 	/**
-     * Generates all possible capturing moves for the current side to move.
+     * Allocates the move and score buffers, the capture lists, the killer moves and the move pickers of the search stack.
      *
-     * @param board The current game board.
-     * @return A list of all capturing moves.
+     * @param maxPly The number of plies the buffers have room for.
      */
-	private static List<Move> generateCaptureMoves(Board board){
-		List<Move> captureMoves = generateMoves(board);
-
-		//remove all moves that are not capturing
-		boolean colourToMove = board.gameStateStack.peek().getIsWhiteToMove(); 
-		for (int i = captureMoves.size() - 1; i >= 0; i--) {
-			long moveBoard = 1L << captureMoves.get(i).getTo();
-			//			Board.printBitBoard(moveBoard, false);
-			//			Board.printBitBoard(moveBoard & BitBoards.blackBB, false);
-			//remove all non captures
-			if (colourToMove) {
-				//check if moveTo is a capture of a black piece, remove if not
-				if ((moveBoard & BitBoards.blackBB) == 0) {
-					captureMoves.remove(i);
-				}
-			} else {
-				//check if moveTo is a capture of a white piece, remove if not
-				if ((moveBoard & BitBoards.whiteBB) == 0) {
-					captureMoves.remove(i);
-				}
-			}
+	private void allocateBuffers(int maxPly) {
+		moveBuffer = new int[maxPly][MoveOrdering.maxMoveCount];
+		scoreBuffer = new int[maxPly][MoveOrdering.maxMoveCount];
+		killerMoves = new int[maxPly][2];
+		captureLists = new MoveList[maxPly];
+		movePickers = new MovePicker[maxPly];
+		for (int ply = 0; ply < maxPly; ply++) {
+			captureLists[ply] = new MoveList(moveBuffer[ply]);
+			movePickers[ply] = new MovePicker(moveOrdering, pseudoLegal);
 		}
-
-		if (turnOnMoveOrdering) {
-			MoveOrdering order = new MoveOrdering(captureMoves);
-			order.orderMoves(board, captureMoves);
-		}		
-		return captureMoves;
 	}
 }
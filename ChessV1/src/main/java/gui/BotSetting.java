@@ -6,9 +6,8 @@ public class BotSetting extends Observable{
 	private boolean whiteBotEnabled;
     private boolean blackBotEnabled;
     
-    //updated from sidePanel and kept as info for the bot to use.
-    private static int nextFrom;
-    private static int nextTo;
+    //updated from sidePanel and kept as info for the bot to use, the whole encoded move including the promotion piece.
+    private static int nextMove;
 
     public BotSetting() {
         this.whiteBotEnabled = false;
@@ -35,20 +34,12 @@ public class BotSetting extends Observable{
         notifyObservers();
     }
     
-	public static void setNextFrom(int next) {
-		nextFrom = next;
+	public static void setNextMove(int move) {
+		nextMove = move;
 	}
 	
-	public static int getNextFrom() {
-		return nextFrom;
-	}
-	
-	public static void setNextTo(int to) {
-		nextTo = to;
-	}
-	
-	public static int getNextTo() {
-		return nextTo;
+	public static int getNextMove() {
+		return nextMove;
 	}
 	
 }
@@ -4,6 +4,7 @@ import javax.swing.*;
 
 import game.board.Board;
 import game.movegeneration.pieces.PieceI;
+import game.search.Move;
 import game.search.Searcher;
 
 import java.awt.*;
@@ -115,6 +116,7 @@ public class GUI extends JFrame implements GameObserver{
 		JButton button3 = new JButton("New Game");
 		JButton button4 = new JButton("Toggle Bot White");
 		JButton button5 = new JButton("Toggle Bot Black");
+		JButton button6 = new JButton("Undo Move");
 
 		JLabel label1 = new JLabel("Moves calculated: ");
 		JLabel label2 = new JLabel("Current Eval: ");
@@ -158,7 +160,7 @@ public class GUI extends JFrame implements GameObserver{
 						}
 						// Write the serialized Board object to the selected file
 						try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileToSave))) {
-							String fenValue = chessBoard.fenStack.peek();
+							String fenValue = chessBoard.getFen();
 							writer.write(fenValue);
 							System.out.println("Game saved successfully to " + fileToSave);
 						} catch (IOException f) {
@@ -238,6 +240,21 @@ public class GUI extends JFrame implements GameObserver{
 			}
 		});
 
+		/**
+		 * Takes back the last move with the undo history of the board,
+		 * the bot moves again if the side to move is played by the bot.
+		 */
+		button6.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				chessBoard.loadPreviousBoard();
+				resetSelection();
+				selectingMode = true;
+				updateBoard();
+				update(null, null);
+			}
+		});
+
 		sidePanel.add(button1);
 		sidePanel.add(button2);
 		sidePanel.add(button3);
@@ -251,6 +268,8 @@ public class GUI extends JFrame implements GameObserver{
 		sidePanel.add(button5);
 		sidePanel.add(label5);
 
+		sidePanel.add(button6);
+
 		// Add chessboardPanel to the center and sidePanel to the east
 		add(chessboardPanel, BorderLayout.CENTER);
 		add(sidePanel, BorderLayout.EAST);
@@ -346,18 +365,18 @@ public class GUI extends JFrame implements GameObserver{
 	 * Updates the graphical representation of the chessboard.
 	 */
 	public void updateBoard() {
-		PieceI[] boardArray = chessBoard.square;
+		byte[] boardArray = chessBoard.square;
 
 		int rows = 8;
 		int cols = 8;
 
 		for (int row = 0; row < rows; row++) {
 			for (int col = 0; col < cols; col++) {
-				int index = row * cols + col;
-				PieceI piece = boardArray[index];
+				// the board array starts at a1, the panels at a8
+				int piece = boardArray[toBBSquare(row, col)];
 
-				String pieceSymbol = (piece != null) ? pieceStrings[piece.getPieceType() -1] : " ";
-				int stringColour = (piece != null) ? piece.getPieceColour() : 2;
+				String pieceSymbol = (piece != PieceI.empty) ? pieceStrings[PieceI.getPieceType(piece) -1] : " ";
+				int stringColour = (piece != PieceI.empty) ? PieceI.getPieceColour(piece) : 2;
 				JLabel label = new JLabel(pieceSymbol, SwingConstants.CENTER);
 
 				if (stringColour != 2) {
@@ -390,8 +409,7 @@ public class GUI extends JFrame implements GameObserver{
 		Searcher searcher = new Searcher();
 		searcher.calcBestMove(chessBoard, depth);
 
-		BotSetting.setNextFrom(searcher.bestMoveSoFar.getFrom());
-		BotSetting.setNextTo(searcher.bestMoveSoFar.getTo());
+		BotSetting.setNextMove(searcher.bestMoveSoFar);
 
 		if (components[3] instanceof JLabel) {
 			JLabel label = (JLabel) components[3];
@@ -404,7 +422,7 @@ public class GUI extends JFrame implements GameObserver{
 		}
 		if (components[5] instanceof JLabel) {
 			JLabel label = (JLabel) components[5];
-			label.setText("Current BestMove: " + Board.translateBBToSquare(searcher.bestMoveSoFar.getFrom()) + " " + Board.translateBBToSquare(searcher.bestMoveSoFar.getTo()));
+			label.setText("Current BestMove: " + Move.getName(searcher.bestMoveSoFar));
 		}
 
 		// Repaint the sidePanel to reflect changes
@@ -432,34 +450,7 @@ public class GUI extends JFrame implements GameObserver{
 	 * @return The corresponding row index in the bitboard representation.
 	 */
 	private static int inverseRowAndCol(int row) {
-		int bbRow = 0;
-		switch (row) {
-		case 0:
-			bbRow = 7;
-			break;
-		case 1:
-			bbRow = 6;
-			break;
-		case 2: 
-			bbRow = 5;
-			break;
-		case 3:
-			bbRow = 4;
-			break;
-		case 4: 
-			bbRow = 3;
-			break;
-		case 5:
-			bbRow = 2;
-			break;
-		case 6:
-			bbRow = 1;
-			break;
-		case 7:
-			bbRow = 0;
-			break;
-		}
-		return bbRow;
+		return 7 - row;
 	}
 
 	/**
@@ -494,10 +485,13 @@ public class GUI extends JFrame implements GameObserver{
 	@Override
 	public void makeBotMove() {
 
-		boolean isWhite = chessBoard.gameStateStack.peek().getIsWhiteToMove();
+		boolean isWhite = chessBoard.gameState.getIsWhiteToMove();
 
 		if (isWhite & botSettings.isWhiteBotEnabled() || !isWhite & botSettings.isBlackBotEnabled()) {
-			chessBoard.movePiece(BotSetting.getNextFrom(), BotSetting.getNextTo());
+			// play the move the search chose, including an underpromotion
+			int move = BotSetting.getNextMove();
+			int promotionPieceType = (Move.isPromotion(move) ? Move.getPromotionPieceType(move) : 5);
+			chessBoard.movePiece(Move.getFrom(move), Move.getTo(move), promotionPieceType);
 			updateBoard();
 			update(null, null);
 		} else {
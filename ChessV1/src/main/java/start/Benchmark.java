@@ -0,0 +1,564 @@
+package start;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import game.board.Board;
+import game.board.Position;
+import game.movegeneration.BitBoards;
+import game.movegeneration.MagicBitBoards;
+import game.movegeneration.MoveCounter;
+import game.movegeneration.MoveGenerator;
+import game.movegeneration.MoveList;
+import game.movegeneration.pieces.Bishop;
+import game.movegeneration.pieces.King;
+import game.movegeneration.pieces.Knight;
+import game.movegeneration.pieces.Pawn;
+import game.movegeneration.pieces.PieceI;
+import game.movegeneration.pieces.Queen;
+import game.movegeneration.pieces.Rook;
+import game.search.Move;
+import game.search.MoveOrdering;
+import game.search.Searcher;
+
+/**
+ * Microbenchmarks for the hot paths of the engine.
+ *
+ * <p>
+ * Run with {@code java start.Benchmark [name]}, without a name every benchmark is run.
+ * Every benchmark is warmed up first so that the JIT has compiled the measured code,
+ * afterwards the best of several rounds is reported as nanoseconds per operation.
+ * </p>
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class Benchmark {
+	private static final int warmupRounds = 5;
+	private static final int measuredRounds = 10;
+
+	private static final String kiwipeteFen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+	// square offsets of the ray walking baseline
+	private static final int[] rookOffsets = {-8, -1, 1, 8};
+	private static final int[] bishopOffsets = {-9, -7, 7, 9};
+
+	/**
+	 * Consumes benchmark results, so the JIT can not remove the measured work.
+	 */
+	private static volatile long sink;
+
+	/**
+	 * A unit of work that is measured.
+	 */
+	private interface Task {
+		/**
+		 * Runs the work once.
+		 *
+		 * @return Any value depending on the work done.
+		 */
+		long run();
+	}
+
+	public static void main(String[] args) {
+		String name = args.length > 0 ? args[0] : "all";
+
+		if (name.equals("all") || name.equals("fen")) {
+			benchmarkFen();
+		}
+		if (name.equals("all") || name.equals("sliders")) {
+			benchmarkSliders();
+		}
+		if (name.equals("all") || name.equals("attacks")) {
+			benchmarkAttackMasks();
+		}
+		if (name.equals("all") || name.equals("movegen")) {
+			benchmarkMoveGeneration();
+		}
+		if (name.equals("all") || name.equals("evasions")) {
+			benchmarkEvasions();
+		}
+		if (name.equals("all") || name.equals("legality")) {
+			benchmarkLegality();
+		}
+		if (name.equals("all") || name.equals("sinks")) {
+			benchmarkSinks();
+		}
+	}
+
+	/**
+	 * Compares making moves with and without creating the FEN of the new position after every move,
+	 * the FEN used to be pushed to a stack on every move.
+	 */
+	private static void benchmarkFen() {
+		Board board = new Board();
+		board.loadFENBoard(kiwipeteFen);
+		int depth = 3;
+		long moves = walk(board, depth, false);
+
+		System.out.println("# FEN per move, " + moves + " moves (generate, make and unmake)");
+		measure("make/unmake", moves, () -> walk(board, depth, false));
+		measure("make/unmake + FEN", moves, () -> walk(board, depth, true));
+	}
+
+	/**
+	 * Compares the magic bitboard lookups for rook and bishop attacks with walking the rays one square at a time,
+	 * as the slider generation in BitBoards used to do.
+	 * One operation is the rook and the bishop attacks of one square.
+	 */
+	private static void benchmarkSliders() {
+		Random random = new Random(1L);
+		long[] occupancies = new long[1024];
+		for (int i = 0; i < occupancies.length; i++) {
+			occupancies[i] = random.nextLong() & random.nextLong();
+		}
+		long operations = occupancies.length * 64L;
+
+		System.out.println("# Slider attacks, " + operations + " squares");
+		measure("ray walking", operations, () -> {
+			long result = 0L;
+			for (long occupancy : occupancies) {
+				for (int square = 0; square < 64; square++) {
+					result ^= rayWalk(1L << square, occupancy, rookOffsets, false) ^ rayWalk(1L << square, occupancy, bishopOffsets, true);
+				}
+			}
+			return result;
+		});
+		measure("magic bitboards", operations, () -> {
+			long result = 0L;
+			for (long occupancy : occupancies) {
+				for (int square = 0; square < 64; square++) {
+					result ^= MagicBitBoards.rookAttacks(square, occupancy) ^ MagicBitBoards.bishopAttacks(square, occupancy);
+				}
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Compares updating the bitboards after a move, which no longer keeps attack masks,
+	 * with also recomputing the twelve attack masks every make and unmake used to pay for.
+	 * The positions of a game tree walk are replayed in the order make and unmake visit them,
+	 * one operation is the update after one make or unmake.
+	 */
+	private static void benchmarkAttackMasks() {
+		Board board = new Board();
+		board.loadFENBoard(kiwipeteFen);
+		List<Position> visited = new ArrayList<>();
+		collectPositions(board, 3, visited);
+		Position[] positions = visited.toArray(new Position[0]);
+		BitBoards bitBoards = board.bitBoards;
+
+		System.out.println("# Attack masks, " + positions.length + " updates");
+		measure("bitboards and attack masks", positions.length, () -> {
+			long result = 0L;
+			for (Position position : positions) {
+				setPieces(bitBoards, position);
+				bitBoards.updateAll();
+				result ^= attackMasks(bitBoards, true) ^ attackMasks(bitBoards, false);
+			}
+			return result;
+		});
+		measure("bitboards only", positions.length, () -> {
+			long result = 0L;
+			for (Position position : positions) {
+				setPieces(bitBoards, position);
+				bitBoards.updateAll();
+				result ^= bitBoards.allBB;
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Compares the MoveGenerator, with set-wise pawns and knights, to calling the piece generator for every occupied square of the board,
+	 * as the searcher used to do. The positions of a game tree walk of a middlegame position are replayed,
+	 * one operation is the generation of all moves of one position.
+	 */
+	private static void benchmarkMoveGeneration() {
+		Board board = new Board();
+		board.loadFENBoard(kiwipeteFen);
+		List<Position> visited = new ArrayList<>();
+		collectPositions(board, 2, visited);
+		Position[] positions = visited.toArray(new Position[0]);
+
+		System.out.println("# Move generation, " + positions.length + " positions");
+		compareGeneration(board, positions);
+	}
+
+	/**
+	 * Compares the MoveGenerator with the per square generation on the positions of a game tree walk in which the side to move is in check,
+	 * where the MoveGenerator only generates the moves that can resolve the check.
+	 */
+	private static void benchmarkEvasions() {
+		Board board = new Board();
+		board.loadFENBoard(kiwipeteFen);
+		List<Position> visited = new ArrayList<>();
+		collectPositions(board, 3, visited);
+
+		List<Position> inCheck = new ArrayList<>();
+		for (Position position : visited) {
+			board.loadPosition(position);
+			if (board.bitBoards.isInCheck(board.gameState.getIsWhiteToMove())) {
+				inCheck.add(position);
+			}
+		}
+
+		System.out.println("# Check evasions, " + inCheck.size() + " positions in check");
+		compareGeneration(board, inCheck.toArray(new Position[0]));
+	}
+
+	/**
+	 * Compares the legal generation to pseudo-legal generation with a legality test per move on the same positions.
+	 * The pseudo-legal generation skips the pin and check tests, its saving depends on how many moves are verified:
+	 * all of them when the full move list is needed, or only until the first legal move, as in a node that cuts off on its first move.
+	 * Finally both modes of the searcher search the same position.
+	 */
+	private static void benchmarkLegality() {
+		Board board = new Board();
+		board.loadFENBoard(kiwipeteFen);
+		List<Position> visited = new ArrayList<>();
+		collectPositions(board, 2, visited);
+		Position[] positions = visited.toArray(new Position[0]);
+		int[] moves = new int[MoveOrdering.maxMoveCount];
+		int repeats = 16;
+		long operations = (long) positions.length * repeats;
+
+		System.out.println("# Legality, " + positions.length + " positions");
+		measure("legal, all moves", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					generated += MoveGenerator.generateMoves(board, moves);
+				}
+			}
+			return generated;
+		});
+		measure("pseudo-legal, all moves", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					int count = MoveGenerator.generatePseudoLegalMoves(board, moves);
+					for (int j = 0; j < count; j++) {
+						if (MoveGenerator.isLegal(board, moves[j])) {
+							generated++;
+						}
+					}
+				}
+			}
+			return generated;
+		});
+		measure("legal, first move", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					if (MoveGenerator.generateMoves(board, moves) > 0) {
+						generated += moves[0];
+					}
+				}
+			}
+			return generated;
+		});
+		measure("pseudo-legal, first move", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					int count = MoveGenerator.generatePseudoLegalMoves(board, moves);
+					for (int j = 0; j < count; j++) {
+						if (MoveGenerator.isLegal(board, moves[j])) {
+							generated += moves[j];
+							break;
+						}
+					}
+				}
+			}
+			return generated;
+		});
+
+		int depth = 4;
+		Searcher legalSearcher = new Searcher(false);
+		Searcher pseudoLegalSearcher = new Searcher(true);
+		System.out.println("# Search, depth " + depth);
+		measure("legal search", 1, () -> {
+			board.loadFENBoard(kiwipeteFen);
+			legalSearcher.calcBestMove(board, depth);
+			return legalSearcher.movesCalculated;
+		});
+		measure("pseudo-legal search", 1, () -> {
+			board.loadFENBoard(kiwipeteFen);
+			pseudoLegalSearcher.calcBestMove(board, depth);
+			return pseudoLegalSearcher.movesCalculated;
+		});
+	}
+
+	/**
+	 * Compares the consumers of the move generation on the same positions: storing every encoded move in a move list,
+	 * counting the targets without encoding them, as at the leaves of a perft, and stopping at the first legal move.
+	 * The bitboards are updated before every generation, so every call computes the checkers and pins again as after a move,
+	 * otherwise only the first of the repeated calls would pay for them.
+	 */
+	private static void benchmarkSinks() {
+		Board board = new Board();
+		board.loadFENBoard(kiwipeteFen);
+		List<Position> visited = new ArrayList<>();
+		collectPositions(board, 2, visited);
+		Position[] positions = visited.toArray(new Position[0]);
+		MoveList moveList = new MoveList(new int[MoveOrdering.maxMoveCount]);
+		MoveCounter moveCounter = new MoveCounter();
+		int repeats = 16;
+		long operations = (long) positions.length * repeats;
+
+		System.out.println("# Move sinks, " + positions.length + " positions");
+		measure("move list", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					board.bitBoards.updateAll();
+					moveList.clear();
+					MoveGenerator.generateAll(board, moveList);
+					generated += moveList.count;
+				}
+			}
+			return generated;
+		});
+		measure("move counter", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					board.bitBoards.updateAll();
+					moveCounter.clear();
+					MoveGenerator.generateAll(board, moveCounter);
+					generated += moveCounter.count;
+				}
+			}
+			return generated;
+		});
+		measure("has legal move", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					board.bitBoards.updateAll();
+					if (MoveGenerator.hasLegalMove(board)) {
+						generated++;
+					}
+				}
+			}
+			return generated;
+		});
+	}
+
+	/**
+	 * Measures the per square generation and the MoveGenerator on the same positions.
+	 * Every position is generated several times, so that loading the position hardly counts,
+	 * one operation is the generation of all moves of one position.
+	 *
+	 * @param board     The board the positions are loaded into.
+	 * @param positions The positions.
+	 */
+	private static void compareGeneration(Board board, Position[] positions) {
+		int[] moves = new int[MoveOrdering.maxMoveCount];
+		int repeats = 16;
+		long operations = (long) positions.length * repeats;
+
+		measure("per square", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					generated += generateMovesPerSquare(board, moves);
+				}
+			}
+			return generated;
+		});
+		measure("MoveGenerator", operations, () -> {
+			long generated = 0;
+			for (Position position : positions) {
+				board.loadPosition(position);
+				for (int i = 0; i < repeats; i++) {
+					generated += MoveGenerator.generateMoves(board, moves);
+				}
+			}
+			return generated;
+		});
+	}
+
+	/**
+	 * Records the position after every make and unmake of the game tree up to the given depth.
+	 *
+	 * @param board     The board to walk.
+	 * @param depth     The remaining depth.
+	 * @param positions The list the positions are added to.
+	 */
+	private static void collectPositions(Board board, int depth, List<Position> positions) {
+		int[] moves = new int[MoveOrdering.maxMoveCount];
+		int count = MoveGenerator.generateMoves(board, moves);
+
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			positions.add(board.toPosition());
+			if (depth > 1) {
+				collectPositions(board, depth - 1, positions);
+			}
+			board.unmakeMove(moves[i]);
+			positions.add(board.toPosition());
+		}
+	}
+
+	/**
+	 * Copies the piece bitboards of a position, the derived bitboards are left to the update that is measured.
+	 *
+	 * @param bitBoards The bitboards to set.
+	 * @param position  The position.
+	 */
+	private static void setPieces(BitBoards bitBoards, Position position) {
+		bitBoards.pawnsBB = position.getPawnsBB();
+		bitBoards.knightsBB = position.getKnightsBB();
+		bitBoards.bishopsBB = position.getBishopsBB();
+		bitBoards.rooksBB = position.getRooksBB();
+		bitBoards.queensBB = position.getQueensBB();
+		bitBoards.kingsBB = position.getKingsBB();
+		bitBoards.whiteBB = position.getWhiteBB();
+		bitBoards.blackBB = position.getBlackBB();
+	}
+
+	/**
+	 * The attack masks of all pieces of one colour, as BitBoards used to keep them for every piece type and colour.
+	 *
+	 * @param bitBoards The bitboards of the position.
+	 * @param isWhite   Whether the masks of the white pieces are computed.
+	 * @return Bitboard of all squares the pieces of the colour attack.
+	 */
+	private static long attackMasks(BitBoards bitBoards, boolean isWhite) {
+		return Pawn.generateSamePieceAttacks(bitBoards, isWhite)
+				| Knight.generateSamePieceAttacks(bitBoards, isWhite)
+				| Bishop.generateSamePieceAttacks(bitBoards, isWhite)
+				| Rook.generateSamePieceAttacks(bitBoards, isWhite)
+				| Queen.generateSamePieceAttacks(bitBoards, isWhite)
+				| King.generateSamePieceAttacks(bitBoards, isWhite);
+	}
+
+	/**
+	 * The ray walking slider attacks that BitBoards used before the magic bitboards, kept as baseline.
+	 *
+	 * @param position   The bitboard of the slider.
+	 * @param occupancy  Bitboard of all pieces.
+	 * @param offsets    The square offsets of the directions.
+	 * @param isDiagonal Whether the offsets are diagonal.
+	 * @return Bitboard of the attacked squares including the blockers.
+	 */
+	private static long rayWalk(long position, long occupancy, int[] offsets, boolean isDiagonal) {
+		long attacks = 0L;
+		for (int move : offsets) {
+			long newPosition = position;
+
+			while (true) {
+				int oldRank = Long.numberOfTrailingZeros(newPosition) / 8;
+				int oldFile = Long.numberOfTrailingZeros(newPosition) % 8;
+
+				newPosition = (newPosition << move) | (newPosition >>> -move);
+
+				int newRank = Long.numberOfTrailingZeros(newPosition) / 8;
+				int newFile = Long.numberOfTrailingZeros(newPosition) % 8;
+
+				if (Math.abs(newRank - oldRank) == 7 | (isDiagonal && newRank == oldRank) | Math.abs(newFile - oldFile) == 7) {
+					break;
+				}
+				attacks |= newPosition;
+				if ((newPosition & occupancy) != 0) {
+					break;
+				}
+			}
+		}
+		return attacks;
+	}
+
+	/**
+	 * Makes and unmakes every move of the game tree up to the given depth.
+	 *
+	 * @param board      The board to walk.
+	 * @param depth      The remaining depth.
+	 * @param createFen  Whether the FEN is created after every move.
+	 * @return The number of moves made.
+	 */
+	private static long walk(Board board, int depth, boolean createFen) {
+		int[] moves = new int[MoveOrdering.maxMoveCount];
+		int count = MoveGenerator.generateMoves(board, moves);
+		long made = 0;
+
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			if (createFen) {
+				sink += board.getFen().length();
+			}
+			made++;
+			if (depth > 1) {
+				made += walk(board, depth - 1, createFen);
+			}
+			board.unmakeMove(moves[i]);
+		}
+		return made;
+	}
+
+	/**
+	 * Generates all legal moves of the side to move by calling the piece generator for every occupied square,
+	 * the move generation before the MoveGenerator, kept as baseline.
+	 *
+	 * @param board The board.
+	 * @param moves The buffer for the moves.
+	 * @return The number of moves.
+	 */
+	private static int generateMovesPerSquare(Board board, int[] moves) {
+		int count = 0;
+		boolean isWhiteToMove = board.gameState.getIsWhiteToMove();
+
+		for (int from = 0; from < 64; from++) {
+			int piece = board.square[from];
+
+			if (piece != PieceI.empty && PieceI.isWhite(piece) == isWhiteToMove) {
+				long validMoves = PieceI.generateMove(board.bitBoards, piece, from, board.gameState);
+
+				while (validMoves != 0) {
+					int to = Long.numberOfTrailingZeros(validMoves);
+					int move = board.createMove(from, to, 5);
+					moves[count++] = move;
+					if (Move.isPromotion(move)) {
+						for (int promotionPieceType = 2; promotionPieceType < 5; promotionPieceType++) {
+							moves[count++] = board.createMove(from, to, promotionPieceType);
+						}
+					}
+					validMoves &= validMoves - 1;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Runs a task for the warmup and measured rounds and prints the best time per operation.
+	 *
+	 * @param label      The name printed for the result.
+	 * @param operations The number of operations one run of the task performs.
+	 * @param task       The task to measure.
+	 */
+	private static void measure(String label, long operations, Task task) {
+		for (int i = 0; i < warmupRounds; i++) {
+			sink += task.run();
+		}
+
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < measuredRounds; i++) {
+			long start = System.nanoTime();
+			sink += task.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.printf("%-30s %10.1f ns/op%n", label, best / (double) operations);
+	}
+}
@@ -67,8 +67,8 @@ public class Main{
             }
 		});
 		//debugging 
-		//Board.printAllBB(true);
-		//Board.printBitBoard(BitBoards.allBB, true);
+		//board.printAllBB(true);
+		//Board.printBitBoard(board.bitBoards.allBB, true);
 		//Board.printBitBoard(square[1].generateSamePieceAttacks(isWhiteToMove));
 	}
 
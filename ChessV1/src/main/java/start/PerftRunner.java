@@ -0,0 +1,116 @@
+package start;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import game.board.Board;
+import game.perft.ParallelPerft;
+import game.perft.Perft;
+import game.perft.PerftSuite;
+import game.perft.PerftTable;
+
+/**
+ * Command line entry point of the perft tool.
+ *
+ * <p>
+ * <ul>
+ * <li>{@code java start.PerftRunner [-t threads] [-hash mb] [suite [maxNodes]]} runs the standard positions and exits with 1 if a count differs,</li>
+ * <li>{@code java start.PerftRunner [-t threads] [-hash mb] perft <depth> [fen | file]} counts the leaf nodes of a position,</li>
+ * <li>{@code java start.PerftRunner [-t threads] [-hash mb] divide <depth> [fen | file]} prints the count below every root move.</li>
+ * </ul>
+ * The position is given as a FEN or as a file holding a FEN, e.g. {@code SavedGames/TestPosition.txt}, the default is the start position.
+ * With more than one thread the tree is counted by a {@link game.perft.ParallelPerft}, {@code -t 0} uses every available core.
+ * With {@code -hash} the counts of inner nodes are cached in a {@link game.perft.PerftTable} of the given size and the hit rate is reported.
+ * </p>
+ *
+ * @see game.perft.Perft
+ * @see game.perft.PerftSuite
+ *
+ * @author Ryu
+ * @version 1.0
+ */
+public class PerftRunner {
+	public static void main(String[] args) throws IOException {
+		int threads = 1;
+		PerftTable table = null;
+		while (args.length > 1 && (args[0].equals("-t") || args[0].equals("-hash"))) {
+			if (args[0].equals("-t")) {
+				threads = Integer.parseInt(args[1]);
+				if (threads <= 0) {
+					threads = Runtime.getRuntime().availableProcessors();
+				}
+			} else {
+				table = new PerftTable(Integer.parseInt(args[1]));
+			}
+			args = Arrays.copyOfRange(args, 2, args.length);
+		}
+		String command = args.length > 0 ? args[0] : "suite";
+
+		if (command.equals("suite")) {
+			long maxNodes = args.length > 1 ? Long.parseLong(args[1]) : PerftSuite.defaultMaxNodes;
+			if (!PerftSuite.run(maxNodes, threads, table, System.out)) {
+				System.exit(1);
+			}
+			return;
+		}
+		if (!(command.equals("perft") || command.equals("divide")) || args.length < 2) {
+			printUsage();
+		}
+
+		int depth = Integer.parseInt(args[1]);
+		if (depth < (command.equals("divide") ? 1 : 0)) {
+			printUsage();
+		}
+		Board board = new Board();
+		String fen = readFen(args);
+		if (fen == null) {
+			board.loadStartPosition();
+		} else {
+			board.loadFENBoard(fen);
+		}
+		long start = System.nanoTime();
+		long nodes;
+		if (threads > 1) {
+			ParallelPerft perft = new ParallelPerft(board, threads, ParallelPerft.defaultSplitDepth, table);
+			nodes = (command.equals("divide") ? perft.divide(depth, System.out) : perft.perft(depth));
+			perft.shutdown();
+		} else {
+			Perft perft = new Perft(board, table);
+			nodes = (command.equals("divide") ? perft.divide(depth, System.out) : perft.perft(depth));
+		}
+		long time = System.nanoTime() - start;
+		System.out.printf("depth %d: %d nodes in %.1f ms, %d nps, %d threads%s%n", depth, nodes, time / 1e6,
+				PerftSuite.nodesPerSecond(nodes, time), threads, PerftSuite.hitRate(table));
+	}
+
+	/**
+	 * Prints the command line usage and exits with 2.
+	 */
+	private static void printUsage() {
+		System.out.println("usage: PerftRunner [-t threads] [-hash mb] [suite [maxNodes]] | perft <depth> [fen | file] | divide <depth> [fen | file]");
+		System.out.println("perft needs a depth of at least 0, divide a depth of at least 1");
+		System.exit(2);
+	}
+
+	/**
+	 * Reads the position of a perft or divide command, the FEN can be split over several arguments.
+	 *
+	 * @param args The command line arguments, the position starts at index 2.
+	 * @return The FEN of the position, null if no position is given.
+	 * @throws IOException If the position file can not be read.
+	 */
+	private static String readFen(String[] args) throws IOException {
+		if (args.length < 3) {
+			return null;
+		}
+		String fen = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+		Path path = Paths.get(fen);
+		if (Files.isRegularFile(path)) {
+			fen = new String(Files.readAllBytes(path)).trim();
+		}
+		return fen;
+	}
+}